@@ -0,0 +1,6 @@
+package io.wliamp.notion.compa;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public record Hit(JsonNode node, String cursor) {
+}
@@ -0,0 +1,93 @@
+package io.wliamp.notion.compa;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.exists;
+import static java.nio.file.Files.readAllBytes;
+import static java.nio.file.StandardOpenOption.*;
+
+/** Append-only checkpoint of finished objects and the resume cursor, forced to disk every {@code syncEvery} entries. */
+public final class Journal implements AutoCloseable {
+    private static final String DONE = "done";
+    private static final String CURSOR = "cursor";
+    private static final String UNKNOWN = "-";
+
+    private final FileChannel channel;
+    private final int syncEvery;
+    private final Map<String, String> done;
+    private final String cursor;
+    private String lastCursor;
+    private int unsynced;
+
+    private Journal(FileChannel channel, int syncEvery, Map<String, String> done, String cursor) {
+        this.channel = channel;
+        this.syncEvery = Math.max(1, syncEvery);
+        this.done = done;
+        this.cursor = cursor;
+        this.lastCursor = cursor;
+    }
+
+    public static Journal open(Path file, int syncEvery) throws IOException {
+        var done = new HashMap<String, String>();
+        String cursor = null;
+        var bytes = exists(file) ? readAllBytes(file) : new byte[0];
+        var valid = bytes.length;
+        while (valid > 0 && bytes[valid - 1] != '\n') valid--;
+
+        for (var line : new String(bytes, 0, valid, UTF_8).split("\n")) {
+            var parts = line.split(" ");
+            if (parts.length == 3 && DONE.equals(parts[0])) done.put(parts[1], UNKNOWN.equals(parts[2]) ? "" : parts[2]);
+            else if (parts.length == 2 && CURSOR.equals(parts[0])) cursor = parts[1];
+        }
+
+        var channel = FileChannel.open(file, CREATE, WRITE);
+        channel.truncate(valid);
+        channel.position(valid);
+        return new Journal(channel, syncEvery, Map.copyOf(done), cursor);
+    }
+
+    public Map<String, String> done() {
+        return done;
+    }
+
+    public String cursor() {
+        return cursor;
+    }
+
+    public synchronized void done(String id, String lastEdited) {
+        append(DONE + " " + id + " " + (lastEdited == null || lastEdited.isBlank() ? UNKNOWN : lastEdited));
+    }
+
+    public synchronized void cursor(String cursor) {
+        if (cursor == null || cursor.equals(lastCursor)) return;
+        lastCursor = cursor;
+        append(CURSOR + " " + cursor);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try (channel) {
+            if (unsynced > 0) channel.force(false);
+        }
+    }
+
+    private void append(String line) {
+        try {
+            var buffer = ByteBuffer.wrap((line + "\n").getBytes(UTF_8));
+            while (buffer.hasRemaining()) channel.write(buffer);
+            if (++unsynced >= syncEvery) {
+                channel.force(false);
+                unsynced = 0;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,20 +1,37 @@
 package io.wliamp.notion.compo;
 
 import io.wliamp.notion.service.BackupService;
+import io.wliamp.notion.service.VerifyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 @Component
 @Slf4j
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "BACKUP_RUNNER", havingValue = "true", matchIfMissing = true)
 public class BackupRunner implements CommandLineRunner {
     private final BackupService backupService;
+    private final VerifyService verifyService;
+    private final EnvConfig envConfig;
+    private final Telemetry telemetry;
 
     @Override
     public void run(String... args) {
-        backupService.backup();
-        System.exit(0);
+        var status = 1;
+        try {
+            if (envConfig.isVerify()) status = verifyService.verify() ? 0 : 1;
+            else {
+                backupService.backup();
+                status = 0;
+            }
+        } catch (RuntimeException e) {
+            log.error("🔥 Backup job failed", e);
+        } finally {
+            telemetry.export();
+            System.exit(status);
+        }
     }
 }
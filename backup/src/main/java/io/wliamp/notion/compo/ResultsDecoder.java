@@ -0,0 +1,157 @@
+package io.wliamp.notion.compo;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static com.fasterxml.jackson.core.JsonToken.*;
+import static org.springframework.core.io.buffer.DataBufferUtils.release;
+import static reactor.core.publisher.Flux.defer;
+
+@Component
+@RequiredArgsConstructor
+public class ResultsDecoder {
+    private static final int MAX_PAGE = 100;
+
+    private final ObjectMapper mapper;
+
+    public Flux<JsonNode> paginate(Function<String, Flux<DataBuffer>> page) {
+        return paginate(null, page, (_, node) -> node);
+    }
+
+    /** Buffers at most one page of results ahead of demand, so a body and its permit never wait on downstream. */
+    public <T> Flux<T> paginate(String cursor, Function<String, Flux<DataBuffer>> page,
+                                BiFunction<String, JsonNode, T> wrap) {
+        return defer(() -> {
+            var cursors = Sinks.many().unicast().<Optional<String>>onBackpressureBuffer();
+            cursors.tryEmitNext(Optional.ofNullable(cursor));
+            return cursors.asFlux().concatMap(current -> {
+                var next = Sinks.<String>one();
+                return decode(page.apply(current.orElse(null)), next)
+                        .onBackpressureBuffer(MAX_PAGE)
+                        .map(node -> wrap.apply(current.orElse(null), node))
+                        .concatWith(next.asMono()
+                                .doOnSuccess(c -> {
+                                    if (c == null) cursors.tryEmitComplete();
+                                    else cursors.tryEmitNext(Optional.of(c));
+                                })
+                                .then(Mono.<T>empty()));
+            });
+        });
+    }
+
+    /** Emits the results of one body, then completes {@code nextCursor} with next_cursor, or empty on the last page. */
+    public Flux<JsonNode> decode(Flux<DataBuffer> body, Sinks.One<String> nextCursor) {
+        return defer(() -> {
+            var state = new State(mapper);
+            return body.concatMapIterable(state::feed)
+                    .concatWith(defer(() -> Flux.fromIterable(state.finish())))
+                    .doOnComplete(() -> {
+                        if (state.hasMore && state.cursor != null) nextCursor.tryEmitValue(state.cursor);
+                        else nextCursor.tryEmitEmpty();
+                    })
+                    .doOnError(nextCursor::tryEmitError);
+        });
+    }
+
+    private static final class State {
+        private final ObjectMapper mapper;
+        private final JsonParser parser;
+        private TokenBuffer element;
+        private String field;
+        private int depth;
+        private boolean inResults;
+        private boolean hasMore;
+        private String cursor;
+
+        private State(ObjectMapper mapper) {
+            this.mapper = mapper;
+            try {
+                this.parser = mapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new IllegalStateException("Non-blocking JSON parser unavailable", e);
+            }
+        }
+
+        private List<JsonNode> feed(DataBuffer buffer) {
+            var bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            release(buffer);
+            try {
+                ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, 0, bytes.length);
+                return drain();
+            } catch (IOException e) {
+                throw new IllegalStateException("Malformed Notion response", e);
+            }
+        }
+
+        private List<JsonNode> finish() {
+            try {
+                ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).endOfInput();
+                var rest = drain();
+                parser.close();
+                return rest;
+            } catch (IOException e) {
+                throw new IllegalStateException("Malformed Notion response", e);
+            }
+        }
+
+        private List<JsonNode> drain() throws IOException {
+            var complete = new ArrayList<JsonNode>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != NOT_AVAILABLE) {
+                if (element != null) {
+                    element.copyCurrentEvent(parser);
+                    if (token.isStructStart()) depth++;
+                    else if (token.isStructEnd() && --depth == 2) complete.add(close());
+                    continue;
+                }
+                if (token.isStructStart()) {
+                    depth++;
+                    if (inResults && depth == 3) open();
+                    else if (depth == 2 && token == START_ARRAY && "results".equals(field)) inResults = true;
+                } else if (token.isStructEnd()) {
+                    if (--depth == 1) inResults = false;
+                } else if (token == FIELD_NAME && depth == 1) {
+                    field = parser.currentName();
+                } else if (depth == 1 && "has_more".equals(field)) {
+                    hasMore = token == VALUE_TRUE;
+                } else if (depth == 1 && "next_cursor".equals(field)) {
+                    cursor = token == VALUE_STRING ? parser.getText() : null;
+                } else if (inResults && depth == 2) {
+                    open();
+                    complete.add(close());
+                }
+            }
+            return complete;
+        }
+
+        private void open() throws IOException {
+            element = new TokenBuffer(parser);
+            element.copyCurrentEvent(parser);
+        }
+
+        private JsonNode close() throws IOException {
+            try (var buffered = element.asParser(mapper)) {
+                element = null;
+                return mapper.readTree(buffered);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.wliamp.notion.compo;
+
+import io.wliamp.notion.compa.Workspace;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.wliamp.notion.compa.Utility.mask;
+import static java.nio.file.Paths.get;
+
+@Component
+@Slf4j
+public class Workspaces {
+    private final List<Workspace> all;
+
+    public Workspaces(EnvConfig envConfig, Environment environment) {
+        var all = new ArrayList<Workspace>();
+        all.add(Workspace.of(envConfig.getToken(), get(envConfig.getTmp())));
+
+        for (var entry : envConfig.getWorkspaces().split(",")) {
+            if (entry.isBlank()) continue;
+            var pair = entry.trim().split("=", 2);
+            if (pair.length != 2 || pair[1].isBlank())
+                throw new IllegalArgumentException("BACKUP_WORKSPACES entry must be TOKEN_VARIABLE=root: " + entry);
+            var token = environment.getProperty(pair[0].trim());
+            if (token == null || token.isBlank())
+                throw new IllegalArgumentException("BACKUP_WORKSPACES names an unset token variable: " + pair[0]);
+            all.add(Workspace.of(token, get(pair[1].trim())));
+        }
+
+        var roots = all.stream().map(w -> w.root().toAbsolutePath().normalize()).distinct().count();
+        if (roots < all.size()) throw new IllegalArgumentException("BACKUP_WORKSPACES reuses an output root");
+        all.forEach(w -> log.info("🔐 Workspace {} at {} using secret: {}", w.name(), w.root(), mask(w.token(), 5)));
+        this.all = List.copyOf(all);
+    }
+
+    public List<Workspace> all() {
+        return all;
+    }
+
+    public Workspace primary() {
+        return all.getFirst();
+    }
+}
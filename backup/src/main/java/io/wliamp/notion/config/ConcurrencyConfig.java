@@ -0,0 +1,43 @@
+package io.wliamp.notion.config;
+
+import io.wliamp.notion.compa.AdaptiveLimit;
+import io.wliamp.notion.compa.Gate;
+import io.wliamp.notion.compo.EnvConfig;
+import io.wliamp.notion.compo.Telemetry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+public class ConcurrencyConfig {
+    @Bean
+    public Gate fetchGate(EnvConfig envConfig, Telemetry telemetry) {
+        var gate = new Gate(envConfig.getFetchConcurrency());
+        telemetry.inFlight("notion.fetch", gate);
+        return gate;
+    }
+
+    @Bean
+    public Gate objectGate(EnvConfig envConfig, Telemetry telemetry) {
+        var gate = new Gate(envConfig.getObjectConcurrency());
+        telemetry.inFlight("backup.objects", gate);
+        return gate;
+    }
+
+    @Bean
+    public AdaptiveLimit objectLimit(Gate objectGate, EnvConfig envConfig) {
+        return new AdaptiveLimit(objectGate, envConfig.getObjectConcurrencyMin(), envConfig.getObjectConcurrencyMax());
+    }
+
+    @Bean
+    public Gate assetGate(EnvConfig envConfig, Telemetry telemetry) {
+        var gate = new Gate(envConfig.getAssetConcurrency());
+        telemetry.inFlight("asset.download", gate);
+        return gate;
+    }
+
+    @Bean
+    public WebClient assetClient() {
+        return WebClient.builder().build();
+    }
+}
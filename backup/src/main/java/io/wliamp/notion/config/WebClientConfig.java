@@ -1,22 +0,0 @@
-package io.wliamp.notion.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.http.codec.ClientCodecConfigurer;
-import org.springframework.web.reactive.function.client.WebClient;
-
-@Configuration
-public class WebClientConfig {
-    @Bean
-    public WebClient notionApi() {
-        return WebClient.builder()
-                .baseUrl("https://api.notion.com/v1")
-                .defaultHeader("Notion-Version", "2022-06-28")
-                .codecs(this::configureCodecs)
-                .build();
-    }
-
-    private void configureCodecs(ClientCodecConfigurer configurer) {
-        configurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024);
-    }
-}
@@ -0,0 +1,148 @@
+package io.wliamp.notion.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.wliamp.notion.compa.Gate;
+import io.wliamp.notion.compo.Telemetry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.wliamp.notion.constant.Constant.ASSETS;
+import static java.nio.file.Files.*;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static reactor.core.publisher.Mono.*;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AssetService {
+    private static final Set<String> FILE_TYPES = Set.of("file", "image", "pdf", "video", "audio");
+
+    private final WebClient assetClient;
+    private final Gate assetGate;
+    private final Scheduler ioScheduler;
+    private final Telemetry telemetry;
+
+    private final Map<String, Mono<String>> downloads = new ConcurrentHashMap<>();
+
+    public Mono<Void> collect(Path root, List<JsonNode> blocks) {
+        return Flux.fromIterable(hosted(blocks, new ArrayList<>()))
+                .flatMap(block -> {
+                    var url = block.path(block.path("type").asText()).path("file").path("url").asText();
+                    var key = root + " " + url.split("\\?", 2)[0];
+                    return downloads.computeIfAbsent(key, _ -> download(root, url)
+                                    .doOnError(_ -> downloads.remove(key))
+                                    .cache())
+                            .doOnNext(path -> block.put("asset", path))
+                            .onErrorResume(e -> {
+                                log.warn("⚠ Asset of block [{}] not downloaded: {}", block.path("id").asText(), e.getMessage());
+                                return empty();
+                            });
+                })
+                .then();
+    }
+
+    private static List<ObjectNode> hosted(Iterable<JsonNode> blocks, List<ObjectNode> found) {
+        for (var block : blocks) {
+            var content = block.path(block.path("type").asText());
+            if (FILE_TYPES.contains(block.path("type").asText()) && "file".equals(content.path("type").asText())
+                    && content.path("file").hasNonNull("url"))
+                found.add((ObjectNode) block);
+            hosted(block.path("children"), found);
+        }
+        return found;
+    }
+
+    private Mono<String> download(Path root, String url) {
+        var dir = root.resolve(ASSETS.getName());
+
+        return fromCallable(() -> createTempFile(createDirectories(dir), ".download", ".tmp"))
+                .subscribeOn(ioScheduler)
+                .flatMap(temp -> {
+                    var digest = sha256();
+                    return assetGate.run(using(
+                                    () -> AsynchronousFileChannel.open(temp, WRITE),
+                                    channel -> DataBufferUtils.write(assetClient.get()
+                                                            .uri(URI.create(url))
+                                                            .retrieve()
+                                                            .bodyToFlux(DataBuffer.class)
+                                                            .doOnNext(buffer -> hash(digest, buffer)),
+                                                    channel)
+                                            .map(DataBufferUtils::release)
+                                            .then(),
+                                    AssetService::close))
+                            .then(fromCallable(() -> store(root, temp, HexFormat.of().formatHex(digest.digest()), url))
+                                    .subscribeOn(ioScheduler))
+                            .onErrorResume(e -> fromCallable(() -> deleteIfExists(temp))
+                                    .subscribeOn(ioScheduler)
+                                    .then(error(e)));
+                });
+    }
+
+    private String store(Path root, Path temp, String hash, String url) throws IOException {
+        var target = root.resolve(ASSETS.getName()).resolve(hash.substring(0, 2)).resolve(hash + extension(url));
+        var bytes = size(temp);
+
+        if (exists(target)) {
+            deleteIfExists(temp);
+            telemetry.count("asset.downloads", 1, "result", "deduplicated");
+            log.debug("♻️ Asset {} already stored", target.getFileName());
+        } else {
+            move(temp, createDirectories(target.getParent()).resolve(target.getFileName()), ATOMIC_MOVE);
+            telemetry.count("asset.downloads", 1, "result", "stored");
+            telemetry.count("io.bytes.written", bytes, "format", "asset");
+            log.debug("📎 Asset stored at {} ({} bytes)", target, bytes);
+        }
+        return root.relativize(target).toString();
+    }
+
+    private static String extension(String url) {
+        var name = URI.create(url).getPath();
+        var dot = name.lastIndexOf('.');
+        var extension = dot < name.lastIndexOf('/') + 1 ? "" : name.substring(dot).toLowerCase();
+        return extension.matches("\\.[a-z0-9]{1,8}") ? extension : "";
+    }
+
+    private static void hash(MessageDigest digest, DataBuffer buffer) {
+        try (var views = buffer.readableByteBuffers()) {
+            views.forEachRemaining(digest::update);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void close(AsynchronousFileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("⚠ Asset file could not be closed: {}", e.getMessage());
+        }
+    }
+}
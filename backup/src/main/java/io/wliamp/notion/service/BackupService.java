@@ -1,44 +1,99 @@
 package io.wliamp.notion.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.wliamp.notion.compa.AdaptiveLimit;
+import io.wliamp.notion.compa.ArchiveWriter;
+import io.wliamp.notion.compa.BackupState;
+import io.wliamp.notion.compa.Gate;
+import io.wliamp.notion.compa.Hit;
+import io.wliamp.notion.compa.Journal;
+import io.wliamp.notion.compa.ManifestEntry;
+import io.wliamp.notion.compa.Workspace;
 import io.wliamp.notion.compo.EnvConfig;
+import io.wliamp.notion.compo.Telemetry;
+import io.wliamp.notion.compo.Workspaces;
+import io.wliamp.notion.constant.Layout;
+import io.wliamp.notion.constant.OutputFormat;
+import io.wliamp.notion.constant.RowMode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
-import static io.wliamp.notion.compa.Utility.mask;
 import static io.wliamp.notion.compa.Utility.safeName;
+import static io.wliamp.notion.compa.Utility.shard;
 import static io.wliamp.notion.constant.Constant.*;
-import static java.nio.file.Paths.get;
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toSet;
+import static reactor.core.publisher.Mono.defer;
 import static reactor.core.publisher.Mono.fromRunnable;
+import static reactor.core.publisher.Mono.just;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class BackupService {
+    private static final int ROW_CONCURRENCY = 4;
+
     private final EnvConfig envConfig;
     private final FetchService fetchService;
     private final SearchService searchService;
+    private final DatabaseService databaseService;
     private final CommonService commonService;
     private final JsonService jsonService;
+    private final ArchiveService archiveService;
+    private final AssetService assetService;
+    private final CleanupService cleanupService;
+    private final ManifestService manifestService;
+    private final LayoutService layoutService;
     private final PathService pathService;
+    private final StateService stateService;
+    private final Telemetry telemetry;
+    private final Workspaces workspaces;
+    private final Gate objectGate;
+    private final AdaptiveLimit objectLimit;
 
     public void backup() {
-        var root = get(envConfig.getTmp());
-        log.info("🔐 Using secret: {}", mask(envConfig.getToken(), 5));
-        log.info("🚀 Starting workspace backup: {}", root.getParent().getFileName().toString().toUpperCase());
-
-        prepareRoot(root)
-                .flatMapMany(this::searchAndBackupObjects)
-                .collectList()
-                .doOnSuccess(list -> log.info("🎉 Backup completed successfully — {} objects processed", list.size()))
-                .doOnError(e -> log.error("🔥 Backup failed", e))
+        var failed = Flux.fromIterable(workspaces.all())
+                .flatMap(this::backup)
+                .filter(ok -> !ok)
+                .count()
                 .block();
+        if (failed != null && failed > 0) throw new IllegalStateException(failed + " workspace backups failed");
+    }
+
+    private Mono<Boolean> backup(Workspace workspace) {
+        var root = workspace.root();
+        log.info("🚀 Starting workspace backup: {}", workspace.name());
+
+        return telemetry.time("backup", prepareRoot(root)
+                        .flatMap(outDir -> envConfig.getBackupLayout() == Layout.SHARDED
+                                ? layoutService.migrate(outDir).thenReturn(outDir)
+                                : just(outDir))
+                        .flatMapMany(outDir -> searchAndBackupObjects(outDir, workspace.token()))
+                        .collectList())
+                .doOnSuccess(list -> log.info("🎉 Backup of {} completed successfully — {} objects processed",
+                        workspace.name(), list.size()))
+                .map(_ -> true)
+                .onErrorResume(e -> {
+                    log.error("🔥 Backup of {} failed", workspace.name(), e);
+                    return just(false);
+                });
     }
 
     private Mono<Path> prepareRoot(Path root) {
@@ -46,58 +101,281 @@ public class BackupService {
                 .doOnSubscribe(_ -> log.debug("📂 Preparing output directory at {}", root));
     }
 
-    private Flux<JsonNode> searchAndBackupObjects(Path outDir) {
+    private Flux<JsonNode> searchAndBackupObjects(Path outDir, String token) {
+        var cleanup = new AtomicReference<Mono<Void>>(Mono.empty());
+
+        return stateService.load(outDir)
+                .zipWith(manifestService.load(outDir))
+                .flatMapMany(loaded -> Flux.using(
+                        () -> stateService.journal(outDir),
+                        journal -> withArchive(outDir, archive -> searchAndBackupObjects(
+                                outDir, token, loaded.getT1(), loaded.getT2(), journal, archive, cleanup)),
+                        journal -> {
+                            try {
+                                journal.close();
+                            } catch (IOException e) {
+                                log.warn("⚠ Journal could not be closed: {}", e.getMessage());
+                            }
+                        }))
+                .concatWith(defer(() -> cleanup.get().then(Mono.<JsonNode>empty())));
+    }
+
+    private Flux<JsonNode> searchAndBackupObjects(Path outDir, String token, BackupState state,
+                                                  Map<String, ManifestEntry> previous, Journal journal,
+                                                  ArchiveWriter archive, AtomicReference<Mono<Void>> cleanup) {
         var totalFound = new AtomicInteger();
+        var totalSkipped = new AtomicInteger();
+        var totalResumed = new AtomicInteger();
         var totalSucceeded = new AtomicInteger();
         var totalFailed = new AtomicInteger();
+        var totalRows = new AtomicInteger();
+
+        var incremental = envConfig.isIncremental();
+        var since = incremental ? ofNullable(state.watermark()).map(Instant::parse).orElse(null) : null;
+        var known = incremental ? state.objects() : Map.<String, String>of();
+        var journaled = journal.done();
+        var edited = new ConcurrentHashMap<>(known);
+        edited.putAll(journaled);
+        var manifest = new ConcurrentHashMap<>(incremental ? previous : Map.<String, ManifestEntry>of());
+        var newest = new AtomicReference<String>();
+        var rowMode = envConfig.getBackupRows();
+        var touched = ConcurrentHashMap.<String>newKeySet();
+        var exported = ConcurrentHashMap.<String>newKeySet();
+        var complete = incremental ? !previous.isEmpty() : journal.cursor() == null;
+        journaled.values().forEach(time -> newest.accumulateAndGet(time, BackupService::later));
 
-        return searchService.search(envConfig.getToken())
-                .doOnSubscribe(_ -> log.info("🔍 Searching for objects..."))
-                .doOnNext(_ -> totalFound.incrementAndGet())
-                .flatMapSequential(node ->
-                                backupObject(node, outDir)
-                                        .doOnSuccess(_ -> totalSucceeded.incrementAndGet())
+        return search(token, journal.cursor())
+                .doOnSubscribe(_ -> log.info("🔍 Searching for objects{}...",
+                        since == null ? "" : " edited since " + since))
+                .takeWhile(hit -> since == null || lastEdited(hit.node()).isEmpty()
+                        || !Instant.parse(lastEdited(hit.node())).isBefore(since))
+                .doOnNext(hit -> {
+                    totalFound.incrementAndGet();
+                    newest.accumulateAndGet(lastEdited(hit.node()), BackupService::later);
+                    if (hit.node().hasNonNull("id")) {
+                        var entry = describe(hit.node(), previous, archive);
+                        manifest.put(entry.id(), entry);
+                    }
+                })
+                .filter(hit -> {
+                    var database = rowMode == RowMode.PAGES ? null : databaseOf(hit.node());
+                    if (database == null) return true;
+                    touched.add(database);
+                    if (rowMode == RowMode.BOTH) return true;
+                    totalRows.incrementAndGet();
+                    telemetry.count("backup.objects", 1, "result", "row");
+                    return false;
+                })
+                .filter(hit -> {
+                    var unchanged = lastEdited(hit.node()).equals(known.get(hit.node().path("id").asText()));
+                    if (unchanged) {
+                        totalSkipped.incrementAndGet();
+                        telemetry.count("backup.objects", 1, "result", "unchanged");
+                    }
+                    return !unchanged;
+                })
+                .filter(hit -> {
+                    var done = lastEdited(hit.node()).equals(journaled.get(hit.node().path("id").asText()));
+                    if (done) {
+                        totalResumed.incrementAndGet();
+                        telemetry.count("backup.objects", 1, "result", "resumed");
+                    }
+                    return !done;
+                })
+                .flatMapSequential(hit ->
+                                objectGate.run(token, backupObject(hit.node(), outDir, token, archive, exported))
+                                        .doOnSuccess(hash -> {
+                                            manifest.computeIfPresent(key(hit.node()), (_, e) -> e.withHash(hash));
+                                            totalSucceeded.incrementAndGet();
+                                            telemetry.count("backup.objects", 1, "result", "succeeded");
+                                            edited.put(hit.node().path("id").asText(), lastEdited(hit.node()));
+                                            journal.done(hit.node().path("id").asText(), lastEdited(hit.node()));
+                                        })
+                                        .thenReturn(hit)
                                         .onErrorResume(e -> {
+                                            manifest.compute(key(hit.node()), (k, _) -> previous.get(k));
                                             totalFailed.incrementAndGet();
+                                            telemetry.count("backup.objects", 1, "result", "failed");
                                             log.debug("⚠ Failed to backup one object: {}", e.getMessage());
                                             return Mono.empty();
                                         }),
-                        4)
+                        objectLimit.max())
+                .doOnNext(hit -> {
+                    if (totalFailed.get() == 0) journal.cursor(hit.cursor());
+                })
+                .map(Hit::node)
+                .concatWith(defer(() -> Flux.fromIterable(touched)
+                        .filter(id -> !exported.contains(id) && previous.containsKey(id))
+                        .flatMap(id -> exportRows(id, outDir, rowsFile(outDir, id, previous.get(id).path()), token)
+                                .onErrorResume(e -> {
+                                    totalFailed.incrementAndGet();
+                                    log.debug("⚠ Failed to export rows of [{}]: {}", id, e.getMessage());
+                                    return Mono.empty();
+                                }), 4)
+                        .then(Mono.<JsonNode>empty())))
+                .concatWith(defer(() -> stateService.save(outDir, new BackupState(
+                        totalFailed.get() == 0 && newest.get() != null ? newest.get() : state.watermark(),
+                        edited)))
+                        .then(defer(() -> manifestService.write(outDir, manifest.values())))
+                        .then(defer(() -> totalFailed.get() == 0 ? stateService.clearJournal(outDir) : Mono.<Void>empty()))
+                        .then(fromRunnable(() -> {
+                            if (envConfig.isBackupCleanup())
+                                cleanup.set(cleanup(outDir, List.copyOf(manifest.values()), previous.keySet().stream()
+                                        .filter(id -> !manifest.containsKey(id))
+                                        .collect(toSet()), complete));
+                        }))
+                        .then(Mono.<JsonNode>empty()))
                 .doOnComplete(() -> log.info("""
-                                ✅ Backup summary:
+                                ✅ Backup summary for {}:
                                 • Total objects found: {}
+                                • Unchanged, skipped: {}
+                                • Already done, resumed: {}
+                                • Exported as database rows: {}
                                 • Successfully backed up: {}
                                 • Failed: {}
+                                • Objects in flight: {} at the end, peaking at {}, within {}–{}
                                 """,
+                        outDir,
                         totalFound.get(),
+                        totalSkipped.get(),
+                        totalResumed.get(),
+                        totalRows.get(),
                         totalSucceeded.get(),
-                        totalFailed.get()
+                        totalFailed.get(),
+                        objectLimit.limit(),
+                        objectLimit.peak(),
+                        objectLimit.min(),
+                        objectLimit.max()
                 ));
     }
 
-    private Mono<JsonNode> backupObject(JsonNode node, Path outDir) {
+    private Mono<Void> cleanup(Path outDir, Collection<ManifestEntry> live, Set<String> gone, boolean complete) {
+        if (!complete) log.info("🧹 Backup of {} did not see the whole workspace, cleaning up from a full scan", outDir);
+        return (complete ? cleanupService.cleanup(outDir, live, gone) : cleanupService.cleanup(outDir))
+                .onErrorResume(_ -> Mono.empty());
+    }
+
+    private Flux<Hit> search(String token, String cursor) {
+        var hits = searchService.search(token, cursor);
+        return cursor == null
+                ? hits
+                : hits.onErrorResume(WebClientResponseException.BadRequest.class, e -> {
+            log.warn("⚠ Resume cursor rejected, searching from the start: {}", e.getMessage());
+            return searchService.search(token, null);
+        });
+    }
+
+    private static String later(String current, String candidate) {
+        return candidate.isEmpty() || current != null && !Instant.parse(candidate).isAfter(Instant.parse(current))
+                ? current
+                : candidate;
+    }
+
+    private static String lastEdited(JsonNode node) {
+        return node.path("last_edited_time").asText();
+    }
+
+    private static String key(JsonNode node) {
+        return node.path("id").asText().replace("-", "");
+    }
+
+    private String folder(JsonNode node, String title) {
+        return envConfig.getBackupLayout() == Layout.SHARDED
+                ? shard(key(node)).resolve(safeName(title)).toString()
+                : safeName(title);
+    }
+
+    private static String databaseOf(JsonNode node) {
+        var parent = node.path("parent");
+        return "database_id".equals(parent.path("type").asText())
+                ? parent.path("database_id").asText().replace("-", "")
+                : null;
+    }
+
+    private static boolean isDatabase(JsonNode node) {
+        return "database".equals(node.path("object").asText());
+    }
+
+    private static Path rowsFile(Path outDir, String id, String path) {
+        return path == null || ARCHIVE.getIndex().equals(path)
+                ? outDir.resolve(ROW_STORE.getName()).resolve(id + ".ndjson")
+                : outDir.resolve(path).resolve(ROWS.getLines());
+    }
+
+    private Mono<Long> exportRows(String id, Path outDir, Path file, String token) {
+        var rows = databaseService.query(id, token)
+                .flatMapSequential(row -> withBlocks(row, outDir, token), ROW_CONCURRENCY);
+        return pathService.createDir(file.getParent())
+                .then(telemetry.time("rows", jsonService.createLines(file, rows)))
+                .doOnNext(count -> log.debug("🗃 Exported {} rows of [{}] to {}", count, id, file));
+    }
+
+    private Mono<JsonNode> withBlocks(JsonNode row, Path outDir, String token) {
+        return fetchService.fetch(row.path("id").asText(), token)
+                .collectList()
+                .flatMap(blocks -> envConfig.isBackupAssets()
+                        ? assetService.collect(outDir, blocks).thenReturn(blocks)
+                        : just(blocks))
+                .map(blocks -> {
+                    var line = row.deepCopy();
+                    ((ObjectNode) line).putArray("blocks").addAll(blocks);
+                    return line;
+                });
+    }
+
+    private ManifestEntry describe(JsonNode node, Map<String, ManifestEntry> previous, ArchiveWriter archive) {
+        var path = envConfig.getBackupRows() == RowMode.NDJSON && databaseOf(node) != null ? null
+                : archive != null ? ARCHIVE.getIndex() : folder(node, commonService.title(node).name());
+        var before = previous.get(key(node));
+        return manifestService.describe(node, path,
+                before != null && lastEdited(node).equals(before.lastEdited()) ? before.hash() : null);
+    }
+
+    private Flux<JsonNode> withArchive(Path outDir, Function<ArchiveWriter, Flux<JsonNode>> run) {
+        return envConfig.getBackupFormat() == OutputFormat.ARCHIVE
+                ? Flux.usingWhen(archiveService.open(outDir), run, archiveService::commit)
+                : run.apply(null);
+    }
+
+    private Mono<String> backupObject(JsonNode node, Path outDir, String token, ArchiveWriter archive,
+                                      Set<String> exported) {
         return commonService.safeId(node)
                 .flatMap(id -> commonService.extractTitle(node)
                         .flatMap(title -> {
                             log.debug("➡️ Backing up object [{}] with title [{}]", id, title.name());
-                            return fetchAndWrite(id, node, outDir.resolve(safeName(title.name())));
+                            var objDir = outDir.resolve(folder(node, title.name()));
+                            return fetchAndWrite(id, node, outDir, objDir, token, archive)
+                                    .flatMap(hash -> envConfig.getBackupRows() != RowMode.PAGES && isDatabase(node)
+                                            ? exportRows(id, outDir, rowsFile(outDir, id,
+                                                    archive != null ? null : outDir.relativize(objDir).toString()), token)
+                                            .doOnSuccess(_ -> exported.add(id))
+                                            .thenReturn(hash)
+                                            : just(hash));
                         })
                 );
     }
 
-    private Mono<JsonNode> fetchAndWrite(String id, JsonNode node, Path objDir) {
-        return fetchService.fetch(id, envConfig.getToken())
-                .doOnSubscribe(_ -> log.debug("📥 Fetching block tree for [{}]", id))
-                .collectList()
+    private Mono<String> fetchAndWrite(String id, JsonNode node, Path outDir, Path objDir, String token,
+                                       ArchiveWriter archive) {
+        var blockTree = envConfig.getBackupRows() != RowMode.PAGES && isDatabase(node)
+                ? Flux.<JsonNode>empty()
+                : fetchService.fetch(id, token);
+
+        return telemetry.time("fetch", blockTree
+                        .doOnSubscribe(_ -> log.debug("📥 Fetching block tree for [{}]", id))
+                        .collectList())
                 .doOnNext(blocks -> log.debug("📦 Fetched {} blocks for [{}]", blocks.size(), id))
-                .flatMap(blocks -> pathService.createDir(objDir)
-                        .thenMany(
-                                jsonService.create(objDir.resolve(JSON1.getJson()), node)
-                                        .then(jsonService.create(objDir.resolve(JSON2.getJson()), blocks))
-                        )
+                .flatMap(blocks -> envConfig.isBackupAssets()
+                        ? telemetry.time("assets", assetService.collect(outDir, blocks)).thenReturn(blocks)
+                        : just(blocks))
+                .flatMap(blocks -> telemetry.time("write", archive != null
+                                ? archiveService.append(archive, id, node, blocks)
+                                : pathService.createDir(objDir)
+                                .then(jsonService.create(objDir.resolve(JSON1.getJson()), node))
+                                .then(jsonService.create(objDir.resolve(JSON2.getJson()), blocks)))
                         .then(fromRunnable(() ->
-                                log.debug("💾 Object [{}] written to {}", id, objDir)))
-                )
-                .thenReturn(node);
+                                log.debug("💾 Object [{}] written to {}", id, archive != null ? "archive" : objDir)))
+                        .then(manifestService.hash(blocks))
+                );
     }
 }
@@ -0,0 +1,58 @@
+package io.wliamp.notion.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.wliamp.notion.compa.Gate;
+import io.wliamp.notion.compo.ResultsDecoder;
+import io.wliamp.notion.compo.Telemetry;
+import io.wliamp.notion.config.RateLimitFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DatabaseService {
+    private static final int PAGE_SIZE = 100;
+
+    private final WebClient webClient;
+    private final ObjectMapper mapper;
+    private final Gate fetchGate;
+    private final RateLimitFilter rateLimitFilter;
+    private final ResultsDecoder resultsDecoder;
+    private final Telemetry telemetry;
+
+    public Flux<JsonNode> query(String databaseId, String token) {
+        var total = new AtomicInteger();
+
+        return resultsDecoder.paginate(cursor -> page(databaseId, token, cursor))
+                .doOnNext(_ -> {
+                    total.incrementAndGet();
+                    telemetry.count("notion.rows.fetched", 1);
+                })
+                .doOnComplete(() -> log.debug("🗃 Database [{}] returned {} rows", databaseId, total.get()))
+                .doOnError(e -> log.error("❌ Failed to query rows of database [{}]", databaseId, e));
+    }
+
+    private Flux<DataBuffer> page(String databaseId, String token, String cursor) {
+        var body = mapper.createObjectNode();
+        body.put("page_size", PAGE_SIZE);
+        if (cursor != null) body.put("start_cursor", cursor);
+
+        return rateLimitFilter.run(fetchGate, token, webClient.post()
+                        .uri("/databases/{id}/query", databaseId)
+                        .header("Authorization", "Bearer " + token)
+                        .bodyValue(body)
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class)
+                        .doOnSubscribe(_ -> log.debug("🗃 Querying rows of [{}] with cursor={}", databaseId, cursor)))
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+}
@@ -1,40 +1,120 @@
 package io.wliamp.notion.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.wliamp.notion.compa.AdaptiveLimit;
+import io.wliamp.notion.compa.Gate;
+import io.wliamp.notion.compo.EnvConfig;
+import io.wliamp.notion.compo.ResultsDecoder;
+import io.wliamp.notion.compo.Telemetry;
+import io.wliamp.notion.config.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import static reactor.core.publisher.Flux.fromIterable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.wliamp.notion.config.RateLimitFilter.overloaded;
+import static java.lang.System.nanoTime;
+import static java.util.Collections.synchronizedMap;
+import static java.util.Optional.ofNullable;
+import static reactor.core.publisher.Mono.just;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class FetchService {
+    private static final Set<String> DETACHED_TYPES = Set.of("child_page", "child_database");
+
     private final WebClient webClient;
+    private final ObjectMapper mapper;
+    private final Gate fetchGate;
+    private final RateLimitFilter rateLimitFilter;
+    private final ResultsDecoder resultsDecoder;
+    private final Telemetry telemetry;
+    private final EnvConfig envConfig;
+    private final AdaptiveLimit objectLimit;
+
+    private final Map<String, Mono<List<JsonNode>>> synced = synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Mono<List<JsonNode>>> eldest) {
+            return size() > envConfig.getFetchCache();
+        }
+    });
 
     public Flux<JsonNode> fetch(String parentId, String token) {
-        log.info("📥 Fetching children blocks for parentId={}", parentId);
-
-        return webClient.get()
-                .uri("/blocks/{id}/children?page_size=100", parentId)
-                .header("Authorization", "Bearer " + token)
-                .retrieve()
-                .bodyToMono(JsonNode.class)
-                .doOnNext(root -> log.debug("📦 Raw fetch response for [{}]: has 'results'={}",
-                        parentId, root.has("results")))
-                .flatMapMany(root -> {
-                    var results = root.get("results");
-
-                    return results != null && results.isArray()
-                            ? fromIterable(results)
-                            .doOnSubscribe(_ -> log.debug("📥 Processing {} children for [{}]", results.size(), parentId))
-                            .doOnComplete(() -> log.info("✅ Fetched {} blocks for parentId={}", results.size(), parentId))
-                            : Flux.<JsonNode>empty()
-                            .doOnSubscribe(_ -> log.warn("⚠️ No results array in fetch response for [{}]", parentId));
-                })
+        log.info("📥 Fetching block tree for parentId={}", parentId);
+
+        return tree(parentId, token)
                 .doOnError(e -> log.error("❌ Failed to fetch children for [{}]", parentId, e));
     }
+
+    private Flux<JsonNode> tree(String parentId, String token) {
+        return children(parentId, token)
+                .flatMapSequential(block -> expand(block, token));
+    }
+
+    private Mono<JsonNode> expand(JsonNode block, String token) {
+        return block.path("has_children").asBoolean(false)
+                && !DETACHED_TYPES.contains(block.path("type").asText())
+                ? subtree(block, token)
+                .map(kids -> {
+                    ((ObjectNode) block).set("children", mapper.createArrayNode().addAll(kids));
+                    return block;
+                })
+                : just(block);
+    }
+
+    private Mono<List<JsonNode>> subtree(JsonNode block, String token) {
+        if (!"synced_block".equals(block.path("type").asText()) || envConfig.getFetchCache() <= 0)
+            return tree(block.path("id").asText(), token).collectList();
+
+        var id = block.path("id").asText();
+        var source = block.path("synced_block").path("synced_from").path("block_id").asText(id);
+        var miss = new AtomicBoolean();
+        var shared = synced.computeIfAbsent(source, key -> {
+            miss.set(true);
+            return tree(id, token)
+                    .collectList()
+                    .doOnError(_ -> synced.remove(key))
+                    .cache();
+        });
+        telemetry.count("notion.fetch.cache", 1, "result", miss.get() ? "miss" : "hit");
+        return shared.map(kids -> kids.stream().<JsonNode>map(JsonNode::deepCopy).toList());
+    }
+
+    public Flux<JsonNode> children(String parentId, String token) {
+        return resultsDecoder.paginate(cursor -> page(parentId, token, cursor))
+                .doOnNext(_ -> telemetry.count("notion.blocks.fetched", 1));
+    }
+
+    private Flux<DataBuffer> page(String parentId, String token, String cursor) {
+        return rateLimitFilter.run(fetchGate, token, Flux.defer(() -> {
+                    var start = nanoTime();
+                    return webClient.get()
+                            .uri(uri -> uri.path("/blocks/{id}/children")
+                                    .queryParam("page_size", 100)
+                                    .queryParamIfPresent("start_cursor", ofNullable(cursor))
+                                    .build(parentId))
+                            .header("Authorization", "Bearer " + token)
+                            .retrieve()
+                            .bodyToFlux(DataBuffer.class)
+                            .doOnSubscribe(_ -> log.debug("📥 Requesting children of [{}] with cursor={}", parentId, cursor))
+                            .doOnComplete(() -> objectLimit.onSample(nanoTime() - start, false))
+                            .doOnError(e -> {
+                                if (overloaded(e)) objectLimit.onSample(nanoTime() - start, true);
+                            });
+                }))
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
 }
@@ -0,0 +1,76 @@
+package io.wliamp.notion.service;
+
+import io.wliamp.notion.compa.ManifestEntry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.wliamp.notion.compa.Utility.shard;
+import static io.wliamp.notion.constant.Constant.JSON1;
+import static io.wliamp.notion.constant.Constant.SHARD;
+import static java.util.stream.Collectors.toMap;
+import static reactor.core.publisher.Mono.*;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LayoutService {
+    private static final int MOVE_CONCURRENCY = 8;
+
+    private final PathService pathService;
+    private final JsonService jsonService;
+    private final ManifestService manifestService;
+
+    public Mono<Void> migrate(Path root) {
+        var moved = new ConcurrentHashMap<String, String>();
+
+        return manifestService.load(root)
+                .flatMap(manifest -> {
+                    var byPath = manifest.values().stream()
+                            .filter(entry -> entry.path() != null)
+                            .collect(toMap(ManifestEntry::path, ManifestEntry::id, (first, _) -> first));
+
+                    return pathService.listPath(root)
+                            .filter(path -> !path.getFileName().toString().startsWith(".")
+                                    && !SHARD.isShard(path.getFileName().toString()))
+                            .flatMap(path -> pathService.isDir(path).filter(Boolean::booleanValue).map(_ -> path))
+                            .flatMap(dir -> idOf(dir, byPath)
+                                    .flatMap(id -> file(root, dir, id)
+                                            .doOnNext(target -> moved.put(id, root.relativize(target).toString()))),
+                                    MOVE_CONCURRENCY)
+                            .then(defer(() -> moved.isEmpty()
+                                    ? Mono.<Void>empty()
+                                    : manifestService.write(root, manifest.values().stream()
+                                    .map(entry -> moved.containsKey(entry.id())
+                                            ? entry.withPath(moved.get(entry.id()))
+                                            : entry)
+                                    .toList())))
+                            .doOnSuccess(_ -> {
+                                if (!moved.isEmpty()) log.info("🚚 Migrated {} object folders into shards", moved.size());
+                            });
+                });
+    }
+
+    private Mono<Path> file(Path root, Path dir, String id) {
+        return pathService.move(dir, root.resolve(shard(id)).resolve(dir.getFileName()))
+                .onErrorResume(e -> {
+                    log.warn("⚠ Folder {} not migrated: {}", dir, e.getMessage());
+                    return empty();
+                });
+    }
+
+    private Mono<String> idOf(Path dir, Map<String, String> byPath) {
+        var listed = byPath.get(dir.getFileName().toString());
+        return listed != null
+                ? just(listed)
+                : jsonService.read(dir.resolve(JSON1.getJson()))
+                .map(meta -> meta.path("id").asText().replace("-", ""))
+                .filter(id -> !id.isEmpty())
+                .onErrorResume(_ -> empty());
+    }
+}
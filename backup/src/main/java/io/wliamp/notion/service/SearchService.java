@@ -1,49 +1,61 @@
 package io.wliamp.notion.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.wliamp.notion.compa.Hit;
+import io.wliamp.notion.compo.ResultsDecoder;
+import io.wliamp.notion.compo.Telemetry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 
-import static reactor.core.publisher.Flux.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class SearchService {
+    private static final int PAGE_SIZE = 100;
+
     private final WebClient webClient;
     private final ObjectMapper mapper;
+    private final ResultsDecoder resultsDecoder;
+    private final Telemetry telemetry;
 
-    public Flux<JsonNode> search(String token) {
-        log.info("🔍 Searching Notion workspace");
+    public Flux<Hit> search(String token, String start) {
+        log.info("🔍 Searching Notion workspace{}", start == null ? "" : " from cursor " + start);
+        var pages = new AtomicInteger();
+        var total = new AtomicInteger();
 
+        return resultsDecoder.paginate(start,
+                        cursor -> page(token, cursor).doOnSubscribe(_ -> pages.incrementAndGet()),
+                        (cursor, node) -> new Hit(node, cursor))
+                .limitRate(PAGE_SIZE)
+                .doOnNext(hit -> {
+                    total.incrementAndGet();
+                    telemetry.count("notion.search.results", 1);
+                    log.trace("➡️ Result item: {}", hit.node());
+                })
+                .doOnComplete(() -> log.info("✅ Search returned {} objects across {} pages", total.get(), pages.get()))
+                .doOnError(e -> log.error("❌ Search request failed", e));
+    }
+
+    private Flux<DataBuffer> page(String token, String cursor) {
         var body = mapper.createObjectNode();
         body.set("sort", mapper.createObjectNode()
                 .put("direction", "descending")
                 .put("timestamp", "last_edited_time"));
-        body.put("page_size", 100);
+        body.put("page_size", PAGE_SIZE);
+        if (cursor != null) body.put("start_cursor", cursor);
 
         return webClient.post()
                 .uri("/search")
                 .header("Authorization", "Bearer " + token)
                 .bodyValue(body)
                 .retrieve()
-                .bodyToMono(JsonNode.class)
-                .doOnNext(root -> log.debug("📦 Raw search response: has 'results'={}", root.has("results")))
-                .flatMapMany(root -> {
-                    var results = root.get("results");
-
-                    return results != null && results.isArray()
-                            ? fromIterable(results)
-                            .doOnSubscribe(_ -> log.debug("🔍 Processing {} results", results.size()))
-                            .doOnNext(r -> log.trace("➡️ Result item: {}", r))
-                            .doOnComplete(() -> log.info("✅ Search returned {} objects", results.size()))
-                            : Flux.<JsonNode>empty()
-                            .doOnSubscribe(_ -> log.warn("⚠️ No results array in search response"));
-                })
-                .doOnError(e -> log.error("❌ Search request failed", e));
+                .bodyToFlux(DataBuffer.class)
+                .doOnSubscribe(_ -> log.debug("🔍 Requesting search page with cursor={}", cursor));
     }
 }
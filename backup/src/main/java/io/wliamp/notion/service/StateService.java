@@ -0,0 +1,66 @@
+package io.wliamp.notion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.wliamp.notion.compa.BackupState;
+import io.wliamp.notion.compa.Journal;
+import io.wliamp.notion.compo.EnvConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static io.wliamp.notion.constant.Constant.*;
+import static java.nio.file.Files.createDirectories;
+import static reactor.core.publisher.Mono.*;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StateService {
+    private final JsonService jsonService;
+    private final PathService pathService;
+    private final ObjectMapper mapper;
+    private final EnvConfig envConfig;
+
+    public Mono<BackupState> load(Path root) {
+        var file = root.resolve(BATCH.getName()).resolve(STATE.getJson());
+
+        return jsonService.locate(file)
+                .flatMap(jsonService::read)
+                .map(node -> mapper.convertValue(node, BackupState.class))
+                .doOnNext(state -> log.info("🕒 Loaded backup state: watermark={}, {} objects tracked",
+                        state.watermark(), state.objects().size()))
+                .onErrorResume(e -> {
+                    log.warn("⚠ Backup state unreadable at {}, starting from scratch: {}", file, e.getMessage());
+                    return empty();
+                })
+                .defaultIfEmpty(BackupState.EMPTY);
+    }
+
+    public Mono<Void> save(Path root, BackupState state) {
+        var dir = root.resolve(BATCH.getName());
+
+        return pathService.createDir(dir)
+                .then(jsonService.create(dir.resolve(STATE.getJson()), state))
+                .doOnSuccess(_ -> log.info("🕒 Saved backup state: watermark={}, {} objects tracked",
+                        state.watermark(), state.objects().size()));
+    }
+
+    public Journal journal(Path root) throws IOException {
+        var dir = root.resolve(BATCH.getName());
+        createDirectories(dir);
+        var journal = Journal.open(dir.resolve(JOURNAL.getName()), envConfig.getJournalSync());
+        if (!journal.done().isEmpty())
+            log.info("♻️ Resuming interrupted backup: {} objects already done, cursor={}",
+                    journal.done().size(), journal.cursor());
+        return journal;
+    }
+
+    public Mono<Void> clearJournal(Path root) {
+        return pathService.removeFile(root.resolve(BATCH.getName()).resolve(JOURNAL.getName()))
+                .doOnSuccess(_ -> log.debug("🧾 Journal cleared for {}", root));
+    }
+}
@@ -0,0 +1,142 @@
+package io.wliamp.notion.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.wliamp.notion.compa.BlockDigest;
+import io.wliamp.notion.compa.BlockHash;
+import io.wliamp.notion.compa.Hit;
+import io.wliamp.notion.compa.ManifestEntry;
+import io.wliamp.notion.compo.EnvConfig;
+import io.wliamp.notion.compo.Telemetry;
+import io.wliamp.notion.constant.RowMode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static io.wliamp.notion.constant.Constant.ARCHIVE;
+import static io.wliamp.notion.constant.Constant.JSON2;
+import static java.nio.file.Paths.get;
+import static reactor.core.publisher.Mono.just;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class VerifyService {
+    private final EnvConfig envConfig;
+    private final FetchService fetchService;
+    private final SearchService searchService;
+    private final JsonService jsonService;
+    private final ArchiveService archiveService;
+    private final ManifestService manifestService;
+    private final Telemetry telemetry;
+
+    public boolean verify() {
+        var root = get(envConfig.getTmp());
+        log.info("🚀 Verifying backup {} against the workspace", root.toAbsolutePath());
+
+        var results = new ConcurrentHashMap<String, Integer>();
+        var drifted = new ConcurrentLinkedQueue<String>();
+        var seen = ConcurrentHashMap.<String>newKeySet();
+
+        var manifest = telemetry.time("verify", manifestService.load(root)
+                        .flatMap(entries -> {
+                            if (entries.isEmpty()) log.warn("⚠ No manifest at {}, every object will be reported missing", root);
+                            return searchService.search(envConfig.getToken(), null)
+                                    .map(Hit::node)
+                                    .filter(node -> node.hasNonNull("id"))
+                                    .flatMap(node -> check(root, entries, node, seen, drifted), 4)
+                                    .doOnNext(result -> {
+                                        results.merge(result, 1, Integer::sum);
+                                        telemetry.count("verify.objects", 1, "result", result);
+                                    })
+                                    .then(just(entries));
+                        }))
+                .doOnError(e -> log.error("🔥 Verify failed", e))
+                .block();
+
+        var gone = manifest.keySet().stream().filter(id -> !seen.contains(id)).count();
+        telemetry.count("verify.objects", gone, "result", "gone");
+        drifted.stream().sorted().forEach(id -> log.warn("❗ Drifted: {} [{}]", manifest.get(id).path(), id));
+        log.info("""
+                        ✅ Verify summary:
+                        • Unchanged, skipped: {}
+                        • Identical: {}
+                        • Databases and rows, not compared: {}
+                        • Drifted: {}
+                        • Missing from backup: {}
+                        • Gone from workspace: {}
+                        • Failed: {}
+                        """,
+                results.getOrDefault("unchanged", 0),
+                results.getOrDefault("identical", 0),
+                results.getOrDefault("database", 0),
+                results.getOrDefault("drifted", 0),
+                results.getOrDefault("missing", 0),
+                gone,
+                results.getOrDefault("failed", 0));
+
+        return drifted.isEmpty() && gone == 0 && results.getOrDefault("missing", 0) == 0
+                && results.getOrDefault("failed", 0) == 0;
+    }
+
+    private Mono<String> check(Path root, Map<String, ManifestEntry> manifest, JsonNode node,
+                               Set<String> seen, Queue<String> drifted) {
+        var id = node.path("id").asText().replace("-", "");
+        var entry = manifest.get(id);
+        seen.add(id);
+        if (envConfig.getBackupRows() == RowMode.NDJSON && "database_id".equals(node.path("parent").path("type").asText()))
+            return just("database");
+        if (entry == null) {
+            log.warn("❗ Missing from backup: [{}]", id);
+            return just("missing");
+        }
+        if (envConfig.getBackupRows() != RowMode.PAGES && "database".equals(node.path("object").asText()))
+            return just("database");
+        if (!envConfig.isVerifyDeep() && node.path("last_edited_time").asText().equals(entry.lastEdited()))
+            return just("unchanged");
+
+        return stored(root, entry)
+                .map(blocks -> BlockHash.levels(node.path("id").asText(), blocks))
+                .flatMap(levels -> matches(node.path("id").asText(), levels))
+                .map(same -> {
+                    if (!same) drifted.add(id);
+                    return same ? "identical" : "drifted";
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("❗ Blocks of [{}] missing from backup", id);
+                    return "missing";
+                }))
+                .onErrorResume(e -> {
+                    log.warn("⚠ Failed to verify [{}]: {}", id, e.getMessage());
+                    return just("failed");
+                });
+    }
+
+    private Mono<JsonNode> stored(Path root, ManifestEntry entry) {
+        return ARCHIVE.getIndex().equals(entry.path())
+                ? archiveService.blocks(root, entry.id())
+                : jsonService.locate(root.resolve(entry.path()).resolve(JSON2.getJson()))
+                .flatMap(jsonService::read);
+    }
+
+    private Mono<Boolean> matches(String parentId, Map<String, List<BlockDigest>> levels) {
+        return fetchService.children(parentId, envConfig.getToken())
+                .map(BlockHash::digest)
+                .collectList()
+                .flatMap(live -> live.equals(levels.get(parentId))
+                        ? Flux.fromIterable(live)
+                        .filter(BlockDigest::expandable)
+                        .flatMap(child -> matches(child.id(), levels))
+                        .all(Boolean::booleanValue)
+                        : just(false).doOnNext(_ -> telemetry.count("verify.levels.drifted", 1)));
+    }
+}
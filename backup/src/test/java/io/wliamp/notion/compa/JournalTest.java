@@ -0,0 +1,56 @@
+package io.wliamp.notion.compa;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.readString;
+import static java.nio.file.Files.writeString;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void reloadsEntriesAndCutsTornTail() throws IOException {
+        var file = dir.resolve("journal.log");
+        try (var journal = Journal.open(file, 1)) {
+            journal.done("a", "2024-01-01T00:00:00.000Z");
+            journal.cursor("c1");
+        }
+        writeString(file, "done b 2024-01-0", UTF_8, APPEND);
+
+        try (var journal = Journal.open(file, 1)) {
+            assertThat(journal.done()).containsOnlyKeys("a");
+            assertThat(journal.cursor()).isEqualTo("c1");
+            journal.done("c", "2024-01-03T00:00:00.000Z");
+        }
+
+        assertThat(readString(file, UTF_8)).isEqualTo("""
+                done a 2024-01-01T00:00:00.000Z
+                cursor c1
+                done c 2024-01-03T00:00:00.000Z
+                """);
+        try (var journal = Journal.open(file, 32)) {
+            assertThat(journal.done()).containsOnlyKeys("a", "c");
+        }
+    }
+
+    @Test
+    void keepsObjectsWithoutEditStamp() throws IOException {
+        var file = dir.resolve("journal.log");
+        try (var journal = Journal.open(file, 32)) {
+            journal.done("a", "");
+            journal.done("b", null);
+        }
+
+        try (var journal = Journal.open(file, 32)) {
+            assertThat(journal.done()).containsEntry("a", "").containsEntry("b", "");
+        }
+    }
+}
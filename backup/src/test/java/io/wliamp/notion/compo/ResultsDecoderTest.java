@@ -0,0 +1,139 @@
+package io.wliamp.notion.compo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultsDecoderTest {
+    private static final String RESULTS = """
+            [{"id":"a","type":"paragraph","paragraph":{"rich_text":[{"plain_text":"{[\\"é 🚀\\"]}"}]}},
+             {"id":"b","children":[[1,2],[],{"x":{"y":[null,true]}}]},
+             "scalar",
+             42]""";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ResultsDecoder decoder = new ResultsDecoder(mapper);
+
+    @Test
+    void decodesBodiesSplitAtEveryOffset() throws Exception {
+        var body = ("{\"object\":\"list\",\"results\":" + RESULTS + ",\"has_more\":true,\"next_cursor\":\"c2\"}")
+                .getBytes(UTF_8);
+        var expected = toList(mapper.readTree(RESULTS));
+
+        for (var cut = 1; cut < body.length; cut++) {
+            var next = Sinks.<String>one();
+            var decoded = decoder.decode(chunks(body, cut, body.length), next).collectList().block();
+
+            assertThat(decoded).as("split at %d", cut).isEqualTo(expected);
+            assertThat(next.asMono().block()).isEqualTo("c2");
+        }
+        for (var size = 1; size <= 7; size++) {
+            var decoded = decoder.decode(chunks(body, size), Sinks.one()).collectList().block();
+
+            assertThat(decoded).as("chunks of %d", size).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void readsCursorWhetherItComesBeforeOrAfterResults() {
+        var before = "{\"has_more\":true,\"next_cursor\":\"c2\",\"results\":[{\"id\":\"a\"}],\"type\":\"block\"}";
+        var after = "{\"results\":[{\"id\":\"a\"}],\"next_cursor\":\"c2\",\"has_more\":true}";
+
+        for (var json : List.of(before, after)) {
+            var next = Sinks.<String>one();
+            var decoded = decoder.decode(chunks(json.getBytes(UTF_8), 5), next).collectList().block();
+
+            assertThat(decoded).extracting(node -> node.path("id").asText()).containsExactly("a");
+            assertThat(next.asMono().block()).isEqualTo("c2");
+        }
+    }
+
+    @Test
+    void endsOnEmptyResultsAndLastPage() {
+        var next = Sinks.<String>one();
+        var json = "{\"results\":[],\"has_more\":false,\"next_cursor\":null}";
+
+        assertThat(decoder.decode(chunks(json.getBytes(UTF_8), 3), next).collectList().block()).isEmpty();
+        assertThat(next.asMono().block()).isNull();
+    }
+
+    @Test
+    void followsCursorsUntilTheLastPage() {
+        var pages = Map.of(
+                "", "{\"results\":[{\"id\":\"1\"},{\"id\":\"2\"}],\"has_more\":true,\"next_cursor\":\"p2\"}",
+                "p2", "{\"results\":[],\"has_more\":true,\"next_cursor\":\"p3\"}",
+                "p3", "{\"results\":[{\"id\":\"3\"}],\"has_more\":false,\"next_cursor\":\"ignored\"}");
+        var requested = new CopyOnWriteArrayList<String>();
+
+        var results = decoder.paginate(null, cursor -> {
+                    requested.add(cursor == null ? "" : cursor);
+                    return chunks(pages.get(cursor == null ? "" : cursor).getBytes(UTF_8), 4);
+                }, (cursor, node) -> cursor + ":" + node.path("id").asText())
+                .collectList()
+                .block();
+
+        assertThat(results).containsExactly("null:1", "null:2", "p3:3");
+        assertThat(requested).containsExactly("", "p2", "p3");
+    }
+
+    @Test
+    void drainsPageBodyAheadOfDemand() {
+        var drained = new AtomicBoolean();
+        var received = new ArrayList<JsonNode>();
+        var json = "{\"results\":[{\"id\":\"1\"},{\"id\":\"2\"},{\"id\":\"3\"}],\"has_more\":false}";
+
+        decoder.paginate(_ -> chunks(json.getBytes(UTF_8), 2).doOnComplete(() -> drained.set(true)))
+                .subscribe(new BaseSubscriber<>() {
+                    @Override
+                    protected void hookOnSubscribe(Subscription subscription) {
+                        request(1);
+                    }
+
+                    @Override
+                    protected void hookOnNext(JsonNode value) {
+                        received.add(value);
+                    }
+                });
+
+        assertThat(received).hasSize(1);
+        assertThat(drained).isTrue();
+    }
+
+    private static Flux<DataBuffer> chunks(byte[] bytes, int size) {
+        var buffers = new ArrayList<DataBuffer>();
+        for (var from = 0; from < bytes.length; from += size)
+            buffers.add(wrap(bytes, from, Math.min(bytes.length, from + size)));
+        return Flux.fromIterable(buffers);
+    }
+
+    private static Flux<DataBuffer> chunks(byte[] bytes, int cut, int length) {
+        return Flux.just(wrap(bytes, 0, cut), wrap(bytes, cut, length));
+    }
+
+    private static DataBuffer wrap(byte[] bytes, int from, int to) {
+        var slice = new byte[to - from];
+        System.arraycopy(bytes, from, slice, 0, slice.length);
+        return DefaultDataBufferFactory.sharedInstance.wrap(slice);
+    }
+
+    private static List<JsonNode> toList(JsonNode array) {
+        var list = new ArrayList<JsonNode>();
+        array.forEach(list::add);
+        return list;
+    }
+}
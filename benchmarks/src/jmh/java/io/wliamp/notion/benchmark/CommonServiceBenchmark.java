@@ -0,0 +1,51 @@
+package io.wliamp.notion.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.wliamp.notion.compa.Title;
+import io.wliamp.notion.compa.Utility;
+import io.wliamp.notion.service.CommonService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class CommonServiceBenchmark {
+    private final CommonService commonService = new CommonService();
+
+    private JsonNode page;
+    private JsonNode untitled;
+    private String title;
+
+    @Setup
+    public void setup() {
+        var mapper = new ObjectMapper();
+        var random = new SplittableRandom(42);
+        page = Payloads.page(mapper, random);
+        untitled = Payloads.page(mapper, random).without("properties");
+        title = Payloads.title(random);
+    }
+
+    @Benchmark
+    public Title extractTitle() {
+        return commonService.extractTitle(page).block();
+    }
+
+    @Benchmark
+    public Title extractTitleFallback() {
+        return commonService.extractTitle(untitled).block();
+    }
+
+    @Benchmark
+    public String safeId() {
+        return commonService.safeId(page).block();
+    }
+
+    @Benchmark
+    public String safeName() {
+        return Utility.safeName(title);
+    }
+}
@@ -0,0 +1,35 @@
+package io.wliamp.notion.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.wliamp.notion.compo.EnvConfig;
+import io.wliamp.notion.compo.Telemetry;
+import io.wliamp.notion.config.ExecutionConfig;
+import io.wliamp.notion.constant.Compression;
+import io.wliamp.notion.constant.IoMode;
+import reactor.core.scheduler.Scheduler;
+
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+final class Fixtures {
+    private Fixtures() {
+    }
+
+    static EnvConfig envConfig(boolean pretty, Compression compression) {
+        var config = new EnvConfig();
+        setField(config, "jsonPretty", pretty);
+        setField(config, "jsonCompression", compression);
+        setField(config, "ioMode", IoMode.ELASTIC);
+        return config;
+    }
+
+    static Scheduler ioScheduler(IoMode mode) {
+        var config = new EnvConfig();
+        setField(config, "ioMode", mode);
+        return new ExecutionConfig().ioScheduler(config);
+    }
+
+    static Telemetry telemetry(EnvConfig envConfig, ObjectMapper mapper) {
+        return new Telemetry(new SimpleMeterRegistry(), envConfig, mapper);
+    }
+}
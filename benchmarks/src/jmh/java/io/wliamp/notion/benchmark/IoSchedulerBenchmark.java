@@ -0,0 +1,74 @@
+package io.wliamp.notion.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.wliamp.notion.constant.Compression;
+import io.wliamp.notion.constant.IoMode;
+import io.wliamp.notion.service.JsonService;
+import io.wliamp.notion.service.PathService;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.util.FileSystemUtils.deleteRecursively;
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class IoSchedulerBenchmark {
+    private static final byte[] META = """
+            {"object":"page","id":"0123456789abcdef0123456789abcdef","parent":{"type":"workspace","workspace":true},"archived":false}
+            """.getBytes();
+
+    @Param({"100000"})
+    public int objects;
+
+    @Param({"ELASTIC", "VIRTUAL"})
+    public IoMode mode;
+
+    @Param({"256", "4096"})
+    public int concurrency;
+
+    private Scheduler scheduler;
+    private ForkJoinPool pool;
+    private PathService pathService;
+    private JsonService jsonService;
+    private Path root;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        var mapper = new ObjectMapper();
+        var envConfig = Fixtures.envConfig(false, Compression.NONE);
+        scheduler = Fixtures.ioScheduler(mode);
+        pool = new ForkJoinPool();
+        pathService = new PathService(pool, scheduler);
+        jsonService = new JsonService(mapper, envConfig, Fixtures.telemetry(envConfig, mapper), scheduler);
+
+        root = Files.createTempDirectory("bench-io");
+        for (var i = 0; i < objects; i++) {
+            var dir = Files.createDirectory(root.resolve("%032x".formatted(i)));
+            Files.write(dir.resolve("meta.json"), META);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        deleteRecursively(root);
+        pool.shutdown();
+        if (mode == IoMode.VIRTUAL) scheduler.dispose();
+    }
+
+    @Benchmark
+    public Long scan() {
+        return pathService.listPath(root)
+                .flatMap(dir -> pathService.isDir(dir)
+                        .filter(Boolean::booleanValue)
+                        .flatMap(_ -> jsonService.read(dir.resolve("meta.json"))), concurrency)
+                .count()
+                .block();
+    }
+}
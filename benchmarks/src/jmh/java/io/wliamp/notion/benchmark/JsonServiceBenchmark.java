@@ -0,0 +1,63 @@
+package io.wliamp.notion.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.wliamp.notion.constant.Compression;
+import io.wliamp.notion.service.JsonService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.util.FileSystemUtils.deleteRecursively;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JsonServiceBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int blocks;
+
+    @Param({"true", "false"})
+    public boolean pretty;
+
+    @Param({"NONE", "GZIP", "ZSTD"})
+    public Compression compression;
+
+    private JsonService jsonService;
+    private JsonNode tree;
+    private Path dir;
+    private Path written;
+    private Path read;
+
+    @Setup
+    public void setup() throws IOException {
+        var mapper = new ObjectMapper();
+        var envConfig = Fixtures.envConfig(pretty, compression);
+        jsonService = new JsonService(mapper, envConfig, Fixtures.telemetry(envConfig, mapper),
+                Fixtures.ioScheduler(envConfig.getIoMode()));
+        tree = Payloads.blocks(mapper, blocks, new SplittableRandom(42));
+        dir = Files.createTempDirectory("bench-json");
+        written = dir.resolve("written.json");
+        read = dir.resolve("read.json");
+        jsonService.create(read, tree).block();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public void create() {
+        jsonService.create(written, tree).block();
+    }
+
+    @Benchmark
+    public JsonNode read() {
+        return jsonService.read(read).block();
+    }
+}
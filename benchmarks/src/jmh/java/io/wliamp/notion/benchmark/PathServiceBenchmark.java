@@ -0,0 +1,66 @@
+package io.wliamp.notion.benchmark;
+
+import io.wliamp.notion.constant.IoMode;
+import io.wliamp.notion.service.PathService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.util.FileSystemUtils.deleteRecursively;
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class PathServiceBenchmark {
+    private static final byte[] CONTENT = new byte[2048];
+
+    @Param({"1000", "10000"})
+    public int objects;
+
+    @Param({"1", "8"})
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private PathService pathService;
+    private Path root;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        pool = new ForkJoinPool(parallelism);
+        pathService = new PathService(pool, Fixtures.ioScheduler(IoMode.ELASTIC));
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() throws IOException {
+        root = Files.createTempDirectory("bench-path");
+        for (var i = 0; i < objects; i++) {
+            var dir = Files.createDirectory(root.resolve("%032x".formatted(i)));
+            Files.write(dir.resolve("meta.json"), CONTENT);
+            Files.write(dir.resolve("blocks.json"), CONTENT);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() throws IOException {
+        deleteRecursively(root);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Long listPath() {
+        return pathService.listPath(root).count().block();
+    }
+
+    @Benchmark
+    public void cleanRecursively() {
+        pathService.cleanRecursively(root).block();
+    }
+}
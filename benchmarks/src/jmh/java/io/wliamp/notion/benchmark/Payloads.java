@@ -0,0 +1,88 @@
+package io.wliamp.notion.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+final class Payloads {
+    private static final String[] TYPES = {"paragraph", "heading_2", "bulleted_list_item", "to_do", "quote", "code"};
+    private static final String LOREM = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor "
+            + "incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation.";
+
+    private Payloads() {
+    }
+
+    static ObjectNode page(ObjectMapper mapper, SplittableRandom random) {
+        var page = mapper.createObjectNode()
+                .put("object", "page")
+                .put("id", uuid(random))
+                .put("created_time", "2025-01-01T00:00:00.000Z")
+                .put("last_edited_time", "2025-06-01T12:34:00.000Z")
+                .put("archived", false)
+                .put("url", "https://www.notion.so/" + uuid(random).replace("-", ""));
+        page.set("parent", mapper.createObjectNode()
+                .put("type", "page_id")
+                .put("page_id", uuid(random)));
+
+        var properties = page.putObject("properties");
+        properties.putObject("Status").put("id", "s%3Aa").put("type", "select")
+                .putObject("select").put("name", "Done").put("color", "green");
+        properties.putObject("Tags").put("id", "t%3Ab").put("type", "multi_select")
+                .putArray("multi_select").addObject().put("name", "benchmark");
+        properties.putObject("title").put("id", "title").put("type", "title")
+                .set("title", richText(mapper, "Quarterly planning / Q3 — draft #" + random.nextInt(1000)));
+        return page;
+    }
+
+    static ArrayNode blocks(ObjectMapper mapper, int count, SplittableRandom random) {
+        var blocks = mapper.createArrayNode();
+        for (var i = 0; i < count; i++) {
+            var block = block(mapper, random);
+            if (i % 10 == 0) {
+                block.put("has_children", true);
+                var children = block.putArray("children");
+                for (var j = 0; j < 3; j++) children.add(block(mapper, random));
+            }
+            blocks.add(block);
+        }
+        return blocks;
+    }
+
+    static String title(SplittableRandom random) {
+        return "Meeting notes: 2025/06/01 — roadmap & budget (v" + random.nextInt(100) + ")?";
+    }
+
+    private static ObjectNode block(ObjectMapper mapper, SplittableRandom random) {
+        var type = TYPES[random.nextInt(TYPES.length)];
+        var block = mapper.createObjectNode()
+                .put("object", "block")
+                .put("id", uuid(random))
+                .put("created_time", "2025-01-01T00:00:00.000Z")
+                .put("last_edited_time", "2025-06-01T12:34:00.000Z")
+                .put("has_children", false)
+                .put("archived", false)
+                .put("type", type);
+        block.putObject(type)
+                .put("color", "default")
+                .set("rich_text", richText(mapper, LOREM.substring(0, 40 + random.nextInt(LOREM.length() - 40))));
+        return block;
+    }
+
+    private static ArrayNode richText(ObjectMapper mapper, String content) {
+        var array = mapper.createArrayNode();
+        var text = array.addObject().put("type", "text").put("plain_text", content);
+        text.putObject("text").put("content", content).putNull("link");
+        text.putObject("annotations")
+                .put("bold", false).put("italic", false).put("strikethrough", false)
+                .put("underline", false).put("code", false).put("color", "default");
+        text.putNull("href");
+        return array;
+    }
+
+    private static String uuid(SplittableRandom random) {
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+}
@@ -0,0 +1,134 @@
+package io.wliamp.notion.loadtest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.wliamp.notion.MainClass;
+import io.wliamp.notion.service.BackupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.System.nanoTime;
+import static java.nio.file.Files.createTempDirectory;
+import static java.nio.file.Files.walk;
+import static java.util.Comparator.reverseOrder;
+
+@Slf4j
+public final class LoadTest {
+    private static final Set<String> HARNESS_KEYS = Set.of(
+            "pages", "depth", "blocks", "latencyMs", "throttle", "keep", "minRate");
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "pages", "500",
+            "depth", "2",
+            "blocks", "10",
+            "latencyMs", "20",
+            "throttle", "0.002",
+            "keep", "false",
+            "minRate", "0",
+            "NOTION_RATE_LIMIT", "1000",
+            "NOTION_RATE_BURST", "100");
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        var settings = new HashMap<>(DEFAULTS);
+        for (var arg : args) {
+            var pair = arg.split("=", 2);
+            if (pair.length != 2) throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            settings.put(pair[0], pair[1]);
+        }
+
+        var workspace = new SyntheticWorkspace(
+                Integer.parseInt(settings.get("pages")),
+                Integer.parseInt(settings.get("depth")),
+                Integer.parseInt(settings.get("blocks")));
+        var out = createTempDirectory("loadtest");
+        var root = out.resolve("stub").resolve("backup");
+
+        try (var stub = new StubNotion(workspace,
+                Duration.ofMillis(Long.parseLong(settings.get("latencyMs"))),
+                Double.parseDouble(settings.get("throttle")))) {
+            var properties = new HashMap<String, Object>();
+            settings.forEach((key, value) -> {
+                if (!HARNESS_KEYS.contains(key)) properties.put(key, value);
+            });
+            properties.put("NOTION_API_URL", stub.baseUrl());
+            properties.put("NOTION_INTEGRATION_TOKEN", "secret_loadtest");
+            properties.put("DIRECTORY_TEMP", root.toString());
+            properties.put("BACKUP_RUNNER", "false");
+
+            try (var context = new SpringApplicationBuilder(MainClass.class)
+                    .web(WebApplicationType.NONE)
+                    .properties(properties)
+                    .run()) {
+                var peakHeap = new AtomicLong();
+                var memory = ManagementFactory.getMemoryMXBean();
+                var sampler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().factory());
+                sampler.scheduleAtFixedRate(() -> peakHeap.accumulateAndGet(
+                        memory.getHeapMemoryUsage().getUsed(), Math::max), 0, 10, TimeUnit.MILLISECONDS);
+
+                var start = nanoTime();
+                context.getBean(BackupService.class).backup();
+                var seconds = (nanoTime() - start) / 1e9;
+                sampler.shutdownNow();
+
+                var registry = context.getBean(MeterRegistry.class);
+                var objects = sum(registry, "backup.objects", "succeeded");
+                var failed = sum(registry, "backup.objects", "failed");
+                log.info("""
+                                📊 Load test result
+                                • Workspace: {} pages × {} blocks ({} blocks total)
+                                • Wall time: {} s
+                                • Objects backed up: {} ({} objects/s), failed: {}
+                                • Blocks fetched: {} ({} blocks/s)
+                                • API calls served: {} ({} throttled)
+                                • Peak heap used: {} MiB
+                                • Bytes written: {}
+                                """,
+                        workspace.pages(), workspace.blocksPerPage(), workspace.pages() * workspace.blocksPerPage(),
+                        String.format("%.2f", seconds),
+                        (long) objects, String.format("%.1f", objects / seconds), (long) failed,
+                        (long) sum(registry, "notion.blocks.fetched", null),
+                        String.format("%.0f", sum(registry, "notion.blocks.fetched", null) / seconds),
+                        stub.calls(), stub.throttled(),
+                        peakHeap.get() / (1024 * 1024),
+                        (long) sum(registry, "io.bytes.written", null));
+
+                if (objects != workspace.pages() || failed > 0)
+                    throw new IllegalStateException("Load test backed up %d of %d pages, %d failed"
+                            .formatted((long) objects, workspace.pages(), (long) failed));
+                var minRate = Double.parseDouble(settings.get("minRate"));
+                if (objects / seconds < minRate)
+                    throw new IllegalStateException("Load test ran at %.1f objects/s, below minRate=%s"
+                            .formatted(objects / seconds, settings.get("minRate")));
+            }
+        } finally {
+            if (!Boolean.parseBoolean(settings.get("keep"))) delete(out);
+            else log.info("📂 Output kept at {}", root);
+        }
+    }
+
+    private static double sum(MeterRegistry registry, String name, String result) {
+        var search = registry.find(name);
+        if (result != null) search = search.tag("result", result);
+        return search.counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (var paths = walk(dir)) {
+            for (var path : paths.sorted(reverseOrder()).toList()) path.toFile().delete();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package io.wliamp.notion.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static java.lang.Math.min;
+
+@Slf4j
+final class StubNotion implements AutoCloseable {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final SyntheticWorkspace workspace;
+    private final Duration latency;
+    private final double throttleRate;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final DisposableServer server;
+
+    StubNotion(SyntheticWorkspace workspace, Duration latency, double throttleRate) {
+        this.workspace = workspace;
+        this.latency = latency;
+        this.throttleRate = throttleRate;
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .post("/v1/search", (request, response) -> serve(request, response, this::search))
+                        .get("/v1/blocks/{id}/children", (request, response) -> serve(request, response, this::children))
+                        .post("/v1/databases/{id}/query", (request, response) -> serve(request, response, _ -> list(
+                                new ObjectNode[0], null))))
+                .bindNow();
+        log.info("🧪 Stub Notion API at {} — {} pages, {} blocks each, latency {} ms, {}% throttled",
+                baseUrl(), workspace.pages(), workspace.blocksPerPage(), latency.toMillis(), throttleRate * 100);
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.port() + "/v1";
+    }
+
+    long calls() {
+        return calls.get();
+    }
+
+    long throttled() {
+        return throttled.get();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Mono<Void> serve(HttpServerRequest request, HttpServerResponse response,
+                             Function<Call, ObjectNode> handler) {
+        calls.incrementAndGet();
+        var delay = latency.isZero() ? Mono.<Long>empty() : Mono.delay(latency);
+
+        if (ThreadLocalRandom.current().nextDouble() < throttleRate) {
+            throttled.incrementAndGet();
+            return delay.then(response.status(HttpResponseStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", "1")
+                    .send()
+                    .then());
+        }
+
+        return request.receive().aggregate().asString().defaultIfEmpty("{}")
+                .map(body -> handler.apply(new Call(request, parse(body))))
+                .flatMap(result -> delay.then(result == null
+                        ? response.status(HttpResponseStatus.NOT_FOUND).send().then()
+                        : response.header("Content-Type", "application/json")
+                        .sendString(Mono.just(result.toString()))
+                        .then()));
+    }
+
+    private ObjectNode search(Call call) {
+        var offset = cursor(call.body().path("start_cursor").asText(null));
+        var size = pageSize(call.body().path("page_size").asInt(MAX_PAGE_SIZE));
+        var end = min(workspace.pages(), offset + size);
+
+        var results = new ObjectNode[Math.max(0, end - offset)];
+        for (var i = offset; i < end; i++) results[i - offset] = workspace.page(mapper, i);
+        return list(results, end < workspace.pages() ? String.valueOf(end) : null);
+    }
+
+    private ObjectNode children(Call call) {
+        var all = workspace.children(mapper, call.request().param("id"));
+        if (all == null) return null;
+
+        var query = new QueryStringDecoder(call.request().uri()).parameters();
+        var offset = cursor(query.containsKey("start_cursor") ? query.get("start_cursor").getFirst() : null);
+        var size = pageSize(query.containsKey("page_size") ? Integer.parseInt(query.get("page_size").getFirst()) : 100);
+        var end = min(all.length, offset + size);
+        return list(Arrays.copyOfRange(all, min(offset, end), end), end < all.length ? String.valueOf(end) : null);
+    }
+
+    private ObjectNode list(ObjectNode[] results, String nextCursor) {
+        var list = mapper.createObjectNode().put("object", "list");
+        list.putArray("results").addAll(Arrays.asList(results));
+        list.put("has_more", nextCursor != null);
+        list.put("next_cursor", nextCursor);
+        return list;
+    }
+
+    private JsonNode parse(String body) {
+        try {
+            return mapper.readTree(body);
+        } catch (IOException e) {
+            return mapper.createObjectNode();
+        }
+    }
+
+    private static int cursor(String cursor) {
+        return cursor == null ? 0 : Integer.parseInt(cursor);
+    }
+
+    private static int pageSize(int requested) {
+        return Math.clamp(requested, 1, MAX_PAGE_SIZE);
+    }
+
+    private record Call(HttpServerRequest request, JsonNode body) {
+    }
+}
@@ -0,0 +1,90 @@
+package io.wliamp.notion.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+import java.util.UUID;
+
+record SyntheticWorkspace(int pages, int depth, int blocks) {
+    private static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+    long blocksPerPage() {
+        long total = 0, level = 1;
+        for (var i = 0; i < depth; i++) {
+            level *= blocks;
+            total += level;
+        }
+        return total;
+    }
+
+    ObjectNode page(ObjectMapper mapper, int index) {
+        var page = mapper.createObjectNode()
+                .put("object", "page")
+                .put("id", id(index, 0).toString())
+                .put("created_time", EPOCH.toString())
+                .put("last_edited_time", EPOCH.minusSeconds(index).toString())
+                .put("archived", false);
+        page.putObject("parent").put("type", "workspace").put("workspace", true);
+        page.putObject("properties").putObject("title")
+                .put("id", "title")
+                .put("type", "title")
+                .putArray("title").add(text(mapper, "Page " + index));
+        return page;
+    }
+
+    ObjectNode[] children(ObjectMapper mapper, String parentId) {
+        UUID parent;
+        try {
+            parent = UUID.fromString(parentId.length() == 32 ? dashed(parentId) : parentId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        var page = (int) parent.getMostSignificantBits();
+        var node = parent.getLeastSignificantBits();
+        if (page < 0 || page >= pages || node < 0 || level(node) >= depth) return null;
+
+        var children = new ObjectNode[blocks];
+        for (var i = 0; i < blocks; i++) {
+            var child = node * blocks + i + 1;
+            var block = mapper.createObjectNode()
+                    .put("object", "block")
+                    .put("id", id(page, child).toString())
+                    .put("created_time", EPOCH.toString())
+                    .put("last_edited_time", EPOCH.toString())
+                    .put("has_children", level(child) < depth)
+                    .put("archived", false)
+                    .put("type", "paragraph");
+            block.putObject("parent").put("type", node == 0 ? "page_id" : "block_id")
+                    .put(node == 0 ? "page_id" : "block_id", parent.toString());
+            block.putObject("paragraph").putArray("rich_text")
+                    .add(text(mapper, "Block " + child + " of page " + page + ", synthetic filler text"));
+            children[i] = block;
+        }
+        return children;
+    }
+
+    private int level(long node) {
+        var level = 0;
+        while (node > 0) {
+            node = (node - 1) / blocks;
+            level++;
+        }
+        return level;
+    }
+
+    private static UUID id(int page, long node) {
+        return new UUID(page, node);
+    }
+
+    private static String dashed(String id) {
+        return id.substring(0, 8) + "-" + id.substring(8, 12) + "-" + id.substring(12, 16) + "-"
+                + id.substring(16, 20) + "-" + id.substring(20);
+    }
+
+    private static ObjectNode text(ObjectMapper mapper, String content) {
+        var text = mapper.createObjectNode().put("type", "text").put("plain_text", content);
+        text.putObject("text").put("content", content);
+        return text;
+    }
+}
@@ -1,11 +1,15 @@
 package io.wliamp.notion;
 
-import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
 
 @SpringBootApplication
 public class MainClass {
     public static void main(String[] args) {
-        SpringApplication.run(MainClass.class, args);
+        new SpringApplicationBuilder(MainClass.class)
+                .web(WebApplicationType.NONE)
+                .lazyInitialization(true)
+                .run(args);
     }
-}
\ No newline at end of file
+}
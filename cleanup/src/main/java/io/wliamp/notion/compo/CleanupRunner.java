@@ -11,10 +11,19 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class CleanupRunner implements CommandLineRunner {
     private final CleanupService CleanupService;
+    private final Telemetry telemetry;
 
     @Override
     public void run(String... args) {
-        CleanupService.cleanup();
-        System.exit(0);
+        var status = 1;
+        try {
+            CleanupService.cleanup();
+            status = 0;
+        } catch (RuntimeException e) {
+            log.error("🔥 Cleanup job failed", e);
+        } finally {
+            telemetry.export();
+            System.exit(status);
+        }
     }
 }
@@ -0,0 +1,68 @@
+package io.wliamp.notion.compa;
+
+/** Additive-increase, multiplicative-decrease limit for a {@link Gate}, kept within {@code [min, max]}. */
+public final class AdaptiveLimit {
+    private static final double TOLERANCE = 3.0;
+    private static final double SMOOTHING = 0.05;
+    private static final double BACKOFF = 0.7;
+    private static final int RELEARN = 512;
+
+    private final Gate gate;
+    private final int min;
+    private final int max;
+    private double limit;
+    private int peak;
+    private double average;
+    private double floor = Double.MAX_VALUE;
+    private int samples;
+    private int sinceDecrease;
+
+    public AdaptiveLimit(Gate gate, int min, int max) {
+        this.gate = gate;
+        this.min = Math.max(1, min);
+        this.max = Math.max(this.min, max);
+        this.limit = Math.min(this.max, Math.max(this.min, gate.limit()));
+        this.peak = (int) limit;
+        gate.resize((int) limit);
+    }
+
+    public void onSample(long nanos, boolean failed) {
+        int next;
+        synchronized (this) {
+            sinceDecrease++;
+            var slow = false;
+            if (!failed) {
+                average = average == 0 ? nanos : average + SMOOTHING * (nanos - average);
+                if (++samples % RELEARN == 0 && floor != Double.MAX_VALUE) floor *= 1.25;
+                floor = Math.min(floor, average);
+                slow = average > floor * TOLERANCE;
+            }
+
+            if (failed || slow) {
+                if (sinceDecrease < limit) return;
+                limit = Math.max(min, limit * BACKOFF);
+                sinceDecrease = 0;
+            } else limit = Math.min(max, limit + 1 / limit);
+
+            next = (int) limit;
+            peak = Math.max(peak, next);
+        }
+        if (next != gate.limit()) gate.resize(next);
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int peak() {
+        return peak;
+    }
+
+    public int min() {
+        return min;
+    }
+
+    public int max() {
+        return max;
+    }
+}
@@ -0,0 +1,117 @@
+package io.wliamp.notion.compa;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.OptionalLong;
+import java.util.SortedMap;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.Files.move;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+import static java.util.Arrays.compareUnsigned;
+
+/** Header {@code [magic][version][generation][length]}, then id-sorted 24-byte entries {@code [16-byte id][long offset]}. */
+public final class ArchiveIndex {
+    private static final int MAGIC = 0x4e424958;
+    private static final int VERSION = 1;
+    private static final int HEADER = 24;
+    private static final int ENTRY = 24;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final long generation;
+    private final long length;
+    private final ByteBuffer entries;
+
+    private ArchiveIndex(long generation, long length, ByteBuffer entries) {
+        this.generation = generation;
+        this.length = length;
+        this.entries = entries;
+    }
+
+    public static ArchiveIndex empty() {
+        return new ArchiveIndex(0, 0, ByteBuffer.allocate(0));
+    }
+
+    public static ArchiveIndex map(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, READ)) {
+            var buffer = channel.map(READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+                throw new IOException("Not an archive index: " + file);
+            return new ArchiveIndex(buffer.getLong(8), buffer.getLong(16),
+                    buffer.slice(HEADER, buffer.capacity() - HEADER));
+        }
+    }
+
+    static void write(Path file, long generation, long length, SortedMap<String, Long> offsets) throws IOException {
+        var buffer = ByteBuffer.allocate(HEADER + ENTRY * offsets.size())
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(generation)
+                .putLong(length);
+        offsets.forEach((id, offset) -> buffer.put(pack(id)).putLong(offset));
+        buffer.flip();
+
+        var temp = file.resolveSibling("." + file.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temp, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(true);
+        }
+        move(temp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public int size() {
+        return entries.capacity() / ENTRY;
+    }
+
+    public String id(int i) {
+        var id = new byte[16];
+        entries.get(i * ENTRY, id);
+        return HEX.formatHex(id);
+    }
+
+    public long offset(int i) {
+        return entries.getLong(i * ENTRY + 16);
+    }
+
+    public OptionalLong find(String id) {
+        var key = pack(id);
+        var probe = new byte[16];
+        int low = 0, high = size() - 1;
+        while (low <= high) {
+            var mid = (low + high) >>> 1;
+            entries.get(mid * ENTRY, probe);
+            var cmp = compareUnsigned(probe, key);
+            if (cmp < 0) low = mid + 1;
+            else if (cmp > 0) high = mid - 1;
+            else return OptionalLong.of(offset(mid));
+        }
+        return OptionalLong.empty();
+    }
+
+    public static String normalize(String id) {
+        return HEX.formatHex(pack(id));
+    }
+
+    static byte[] pack(String id) {
+        var hex = id.replace("-", "");
+        if (hex.length() != 32) throw new IllegalArgumentException("Not a Notion id: " + id);
+        return HEX.parseHex(hex);
+    }
+
+    static String unpack(byte[] id) {
+        return HEX.formatHex(id);
+    }
+}
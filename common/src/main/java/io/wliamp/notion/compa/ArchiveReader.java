@@ -0,0 +1,57 @@
+package io.wliamp.notion.compa;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static io.wliamp.notion.constant.Constant.ARCHIVE;
+import static java.nio.file.StandardOpenOption.READ;
+
+public final class ArchiveReader implements AutoCloseable {
+    private final ArchiveIndex index;
+    private final FileChannel segment;
+
+    private ArchiveReader(ArchiveIndex index, FileChannel segment) {
+        this.index = index;
+        this.segment = segment;
+    }
+
+    public static ArchiveReader open(Path root) throws IOException {
+        var index = ArchiveIndex.map(root.resolve(ARCHIVE.getIndex()));
+        return new ArchiveReader(index, FileChannel.open(root.resolve(ARCHIVE.getSegment(index.generation())), READ));
+    }
+
+    public ArchiveIndex index() {
+        return index;
+    }
+
+    public long length(int i) throws IOException {
+        return ArchiveRecord.probe(segment, index.offset(i));
+    }
+
+    public ArchiveRecord meta(int i) throws IOException {
+        return verified(index.id(i), ArchiveRecord.read(segment, index.offset(i), false));
+    }
+
+    public ArchiveRecord record(int i) throws IOException {
+        return verified(index.id(i), ArchiveRecord.read(segment, index.offset(i), true));
+    }
+
+    public Optional<ArchiveRecord> find(String id) throws IOException {
+        var offset = index.find(id);
+        return offset.isEmpty()
+                ? Optional.empty()
+                : Optional.of(verified(ArchiveIndex.normalize(id), ArchiveRecord.read(segment, offset.getAsLong(), true)));
+    }
+
+    @Override
+    public void close() throws IOException {
+        segment.close();
+    }
+
+    private static ArchiveRecord verified(String id, ArchiveRecord record) throws IOException {
+        if (!id.equals(record.id())) throw new IOException("Archive index points at [" + record.id() + "] for [" + id + "]");
+        return record;
+    }
+}
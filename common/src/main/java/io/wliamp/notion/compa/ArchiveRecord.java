@@ -0,0 +1,51 @@
+package io.wliamp.notion.compa;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/** Segment layout: {@code [16-byte id][int meta length][int blocks length][meta][blocks]}. */
+public record ArchiveRecord(String id, byte[] meta, byte[] blocks) {
+    static final int HEADER = 24;
+
+    public long length() {
+        return HEADER + meta.length + blocks.length;
+    }
+
+    void write(FileChannel channel) throws IOException {
+        var buffer = ByteBuffer.allocate((int) length())
+                .put(ArchiveIndex.pack(id))
+                .putInt(meta.length)
+                .putInt(blocks.length)
+                .put(meta)
+                .put(blocks)
+                .flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    static ArchiveRecord read(FileChannel channel, long offset, boolean withBlocks) throws IOException {
+        var header = readFully(channel, offset, HEADER);
+        var id = new byte[16];
+        header.get(id);
+        var meta = readFully(channel, offset + HEADER, header.getInt()).array();
+        var blocks = withBlocks ? readFully(channel, offset + HEADER + meta.length, header.getInt()).array() : new byte[0];
+        return new ArchiveRecord(ArchiveIndex.unpack(id), meta, blocks);
+    }
+
+    static long probe(FileChannel channel, long offset) throws IOException {
+        if (offset + HEADER > channel.size()) return -1;
+        var header = readFully(channel, offset, HEADER).position(16);
+        long metaLength = header.getInt(), blocksLength = header.getInt();
+        var length = HEADER + metaLength + blocksLength;
+        return metaLength < 0 || blocksLength < 0 || offset + length > channel.size() ? -1 : length;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long offset, int length) throws IOException {
+        var buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining())
+            if (channel.read(buffer, offset + buffer.position()) < 0)
+                throw new EOFException("Segment ends inside record at offset " + offset);
+        return buffer.flip();
+    }
+}
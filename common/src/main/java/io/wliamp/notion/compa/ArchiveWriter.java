@@ -0,0 +1,110 @@
+package io.wliamp.notion.compa;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static io.wliamp.notion.constant.Constant.ARCHIVE;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.exists;
+import static java.nio.file.StandardOpenOption.*;
+import static java.util.stream.Collectors.toSet;
+
+public final class ArchiveWriter implements AutoCloseable {
+    private final Path root;
+    private final long generation;
+    private final FileChannel segment;
+    private final SortedMap<String, Long> offsets;
+    private long length;
+    private long dead;
+
+    private ArchiveWriter(Path root, long generation, FileChannel segment, SortedMap<String, Long> offsets,
+                          long length, long dead) {
+        this.root = root;
+        this.generation = generation;
+        this.segment = segment;
+        this.offsets = offsets;
+        this.length = length;
+        this.dead = dead;
+    }
+
+    public static ArchiveWriter append(Path root) throws IOException {
+        var indexFile = root.resolve(ARCHIVE.getIndex());
+        var index = exists(indexFile) ? ArchiveIndex.map(indexFile) : ArchiveIndex.empty();
+        var offsets = new TreeMap<String, Long>();
+        for (var i = 0; i < index.size(); i++) offsets.put(index.id(i), index.offset(i));
+
+        var segment = FileChannel.open(root.resolve(ARCHIVE.getSegment(index.generation())), CREATE, READ, WRITE);
+        var length = index.length();
+        for (long next; (next = ArchiveRecord.probe(segment, length)) > 0; length += next)
+            offsets.put(ArchiveRecord.read(segment, length, false).id(), length);
+        segment.truncate(length);
+        segment.position(length);
+
+        var live = 0L;
+        for (var offset : offsets.values()) live += ArchiveRecord.probe(segment, offset);
+        return new ArchiveWriter(root, index.generation(), segment, offsets, length, length - live);
+    }
+
+    public static ArchiveWriter create(Path root, long generation) throws IOException {
+        var segment = FileChannel.open(root.resolve(ARCHIVE.getSegment(generation)), CREATE, TRUNCATE_EXISTING, READ, WRITE);
+        return new ArchiveWriter(root, generation, segment, new TreeMap<>(), 0, 0);
+    }
+
+    /** The old generation stays intact until the new index is committed, so an interrupted compaction loses nothing. */
+    public static long compact(Path root, Set<String> drop) throws IOException {
+        var dropped = drop.stream().map(ArchiveIndex::normalize).collect(toSet());
+        try (var reader = ArchiveReader.open(root)) {
+            var writer = create(root, reader.index().generation() + 1);
+            try {
+                for (var i = 0; i < reader.index().size(); i++)
+                    if (!dropped.contains(reader.index().id(i))) writer.append(reader.record(i));
+            } catch (IOException | RuntimeException e) {
+                writer.discard();
+                throw e;
+            }
+            writer.close();
+            return writer.generation();
+        }
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    public synchronized long length() {
+        return length;
+    }
+
+    public synchronized long dead() {
+        return dead;
+    }
+
+    public synchronized void append(ArchiveRecord record) throws IOException {
+        var id = ArchiveIndex.normalize(record.id());
+        new ArchiveRecord(id, record.meta(), record.blocks()).write(segment);
+        var previous = offsets.put(id, length);
+        if (previous != null) dead += ArchiveRecord.probe(segment, previous);
+        length += record.length();
+    }
+
+    public synchronized void discard() throws IOException {
+        segment.close();
+        deleteIfExists(root.resolve(ARCHIVE.getSegment(generation)));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try (segment) {
+            segment.force(false);
+        }
+        ArchiveIndex.write(root.resolve(ARCHIVE.getIndex()), generation, length, offsets);
+    }
+}
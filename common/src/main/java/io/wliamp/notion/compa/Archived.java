@@ -0,0 +1,5 @@
+package io.wliamp.notion.compa;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public record Archived(String id, JsonNode meta, long bytes) {}
@@ -0,0 +1,13 @@
+package io.wliamp.notion.compa;
+
+import java.util.Map;
+
+import static java.util.Optional.ofNullable;
+
+public record BackupState(String watermark, Map<String, String> objects) {
+    public static final BackupState EMPTY = new BackupState(null, Map.of());
+
+    public BackupState {
+        objects = ofNullable(objects).orElse(Map.of());
+    }
+}
@@ -0,0 +1,3 @@
+package io.wliamp.notion.compa;
+
+public record BlockDigest(String id, String hash, boolean expandable) {}
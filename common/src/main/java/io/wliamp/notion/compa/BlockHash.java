@@ -0,0 +1,90 @@
+package io.wliamp.notion.compa;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public final class BlockHash {
+    private static final Set<String> VOLATILE = Set.of("children", "asset", "last_edited_time", "last_edited_by");
+    private static final Set<String> SIGNED = Set.of("url", "expiry_time");
+    private static final Set<String> DETACHED_TYPES = Set.of("child_page", "child_database");
+
+    private BlockHash() {}
+
+    public static BlockDigest digest(JsonNode block) {
+        var copy = (ObjectNode) block.deepCopy();
+        copy.remove(VOLATILE);
+        if (copy.path(copy.path("type").asText()).path("file") instanceof ObjectNode file) file.remove(SIGNED);
+
+        var digest = sha256();
+        update(digest, copy);
+        return new BlockDigest(
+                block.path("id").asText(),
+                HexFormat.of().formatHex(digest.digest()),
+                block.path("has_children").asBoolean(false) && !DETACHED_TYPES.contains(block.path("type").asText()));
+    }
+
+    public static List<BlockDigest> level(Iterable<JsonNode> blocks) {
+        var level = new ArrayList<BlockDigest>();
+        blocks.forEach(block -> level.add(digest(block)));
+        return level;
+    }
+
+    public static Map<String, List<BlockDigest>> levels(String rootId, Iterable<JsonNode> blocks) {
+        return levels(rootId, blocks, new HashMap<>());
+    }
+
+    private static Map<String, List<BlockDigest>> levels(String parentId, Iterable<JsonNode> blocks,
+                                                         Map<String, List<BlockDigest>> levels) {
+        var level = level(blocks);
+        levels.put(parentId, level);
+        var i = 0;
+        for (var block : blocks)
+            if (level.get(i++).expandable()) levels(block.path("id").asText(), block.path("children"), levels);
+        return levels;
+    }
+
+    private static void update(MessageDigest digest, JsonNode node) {
+        digest.update((byte) node.getNodeType().ordinal());
+        if (node.isObject()) {
+            var names = new ArrayList<String>();
+            node.fieldNames().forEachRemaining(names::add);
+            names.sort(null);
+            for (var name : names) {
+                text(digest, name);
+                update(digest, node.get(name));
+            }
+            digest.update((byte) '}');
+        } else if (node.isArray()) {
+            for (var element : node) update(digest, element);
+            digest.update((byte) ']');
+        } else {
+            text(digest, node.asText());
+        }
+    }
+
+    private static void text(MessageDigest digest, String value) {
+        var bytes = value.getBytes(UTF_8);
+        digest.update(new byte[]{(byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16),
+                (byte) (bytes.length >>> 8), (byte) bytes.length});
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package io.wliamp.notion.compa;
+
+import java.util.List;
+
+public record CleanupPlan(String root, long files, long folders, long bytes, List<Deletion> deletions) {}
@@ -0,0 +1,3 @@
+package io.wliamp.notion.compa;
+
+public record Deletion(String path, String reason, long files, long folders, long bytes) {}
@@ -0,0 +1,125 @@
+package io.wliamp.notion.compa;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static reactor.core.publisher.Mono.fromRunnable;
+import static reactor.core.publisher.Mono.usingWhen;
+
+/** Non-blocking semaphore: a task holds one permit from subscription until it terminates or is cancelled. */
+public final class Gate {
+    private static final String DEFAULT_LANE = "";
+
+    private final Map<String, Deque<Waiter>> lanes = new LinkedHashMap<>();
+    private int limit;
+    private int active;
+
+    public Gate(int limit) {
+        this.limit = Math.max(1, limit);
+    }
+
+    public <T> Mono<T> run(Mono<T> task) {
+        return run(DEFAULT_LANE, task);
+    }
+
+    public <T> Mono<T> run(String lane, Mono<T> task) {
+        return usingWhen(acquire(lane), _ -> task, _ -> fromRunnable(this::release));
+    }
+
+    public <T> Flux<T> run(Flux<T> stream) {
+        return run(DEFAULT_LANE, stream);
+    }
+
+    public <T> Flux<T> run(String lane, Flux<T> stream) {
+        return Flux.usingWhen(acquire(lane), _ -> stream, _ -> fromRunnable(this::release));
+    }
+
+    public synchronized int active() {
+        return active;
+    }
+
+    public synchronized int limit() {
+        return limit;
+    }
+
+    public void resize(int limit) {
+        var admitted = new ArrayList<Waiter>();
+        synchronized (this) {
+            this.limit = Math.max(1, limit);
+            Waiter next;
+            while (active < this.limit && (next = poll()) != null) {
+                active++;
+                next.granted = true;
+                admitted.add(next);
+            }
+        }
+        admitted.forEach(waiter -> waiter.sink.success(true));
+    }
+
+    private Mono<Boolean> acquire(String lane) {
+        return Mono.create(sink -> {
+            var waiter = new Waiter(sink, lane);
+            boolean granted;
+            synchronized (this) {
+                granted = active < limit;
+                if (granted) {
+                    active++;
+                    waiter.granted = true;
+                } else lanes.computeIfAbsent(lane, _ -> new ArrayDeque<>()).add(waiter);
+            }
+            sink.onCancel(() -> cancel(waiter));
+            if (granted) sink.success(true);
+        });
+    }
+
+    private void cancel(Waiter waiter) {
+        synchronized (this) {
+            var queue = lanes.get(waiter.lane);
+            if (queue != null && queue.remove(waiter)) {
+                if (queue.isEmpty()) lanes.remove(waiter.lane);
+                return;
+            }
+            if (!waiter.granted) return;
+        }
+        release();
+    }
+
+    private void release() {
+        Waiter next;
+        synchronized (this) {
+            next = active > limit ? null : poll();
+            if (next == null) active--;
+            else next.granted = true;
+        }
+        if (next != null) next.sink.success(true);
+    }
+
+    /** Round-robin across lanes, so a token with a long queue cannot starve the others. */
+    private Waiter poll() {
+        var first = lanes.entrySet().iterator();
+        if (!first.hasNext()) return null;
+        var lane = first.next();
+        var next = lane.getValue().poll();
+        first.remove();
+        if (!lane.getValue().isEmpty()) lanes.put(lane.getKey(), lane.getValue());
+        return next;
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Boolean> sink;
+        private final String lane;
+        private boolean granted;
+
+        private Waiter(MonoSink<Boolean> sink, String lane) {
+            this.sink = sink;
+            this.lane = lane;
+        }
+    }
+}
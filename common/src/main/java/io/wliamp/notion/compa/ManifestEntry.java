@@ -0,0 +1,22 @@
+package io.wliamp.notion.compa;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ManifestEntry(
+        String id,
+        @JsonProperty("parent_id") String parentId,
+        String type,
+        @JsonProperty("last_edited_time") String lastEdited,
+        boolean archived,
+        String path,
+        String hash) {
+    public ManifestEntry withHash(String hash) {
+        return new ManifestEntry(id, parentId, type, lastEdited, archived, path, hash);
+    }
+
+    public ManifestEntry withPath(String path) {
+        return new ManifestEntry(id, parentId, type, lastEdited, archived, path, hash);
+    }
+}
@@ -0,0 +1,5 @@
+package io.wliamp.notion.compa;
+
+import java.nio.file.Path;
+
+public record ObjectEntry(String id, String parentId, boolean archived, Path dir) {}
@@ -0,0 +1,62 @@
+package io.wliamp.notion.compa;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.time.Duration.ZERO;
+import static java.time.Duration.ofNanos;
+import static reactor.core.publisher.Mono.*;
+
+public final class RateLimiter {
+    private static final double NANOS = 1_000_000_000d;
+
+    private final double permitsPerSecond;
+    private final double burst;
+    private double tokens;
+    private long refilledAt;
+    private long pausedUntil;
+
+    public RateLimiter(double permitsPerSecond, double burst) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = max(1, burst);
+        this.tokens = this.burst;
+        this.refilledAt = System.nanoTime();
+        this.pausedUntil = refilledAt;
+    }
+
+    public Mono<Void> acquire() {
+        return defer(() -> sleep(reserve()))
+                .then(defer(() -> sleep(pausedFor())));
+    }
+
+    public synchronized void pause(Duration duration) {
+        var now = System.nanoTime();
+        refill(now);
+        pausedUntil = max(pausedUntil, now + duration.toNanos());
+        tokens = min(tokens, 0);
+    }
+
+    synchronized Duration reserve() {
+        var now = System.nanoTime();
+        refill(now);
+        tokens -= 1;
+        var wait = tokens >= 0 ? 0 : (long) (-tokens / permitsPerSecond * NANOS);
+        return ofNanos(max(wait, pausedUntil - now));
+    }
+
+    synchronized Duration pausedFor() {
+        return ofNanos(max(0, pausedUntil - System.nanoTime()));
+    }
+
+    private void refill(long now) {
+        tokens = min(burst, tokens + (now - refilledAt) / NANOS * permitsPerSecond);
+        refilledAt = now;
+    }
+
+    private static Mono<Void> sleep(Duration wait) {
+        return wait.compareTo(ZERO) > 0 ? delay(wait).then() : empty();
+    }
+}
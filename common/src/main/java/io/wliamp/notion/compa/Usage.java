@@ -0,0 +1,3 @@
+package io.wliamp.notion.compa;
+
+public record Usage(long files, long folders, long bytes) {}
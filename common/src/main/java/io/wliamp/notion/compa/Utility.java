@@ -2,12 +2,21 @@ package io.wliamp.notion.compa;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Optional;
+import java.util.Set;
 
+import static io.wliamp.notion.constant.Constant.SHARD;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Optional.ofNullable;
 import static java.util.UUID.*;
 
 public final class Utility {
+    private static final Set<String> OBJECT_PARENTS = Set.of("page_id", "database_id");
+
     public static Optional<String> extractFirstPlainText(JsonNode arr) {
         return ofNullable(arr)
                 .filter(JsonNode::isArray)
@@ -15,12 +24,30 @@ public final class Utility {
                 .map(a -> a.get(0).path("plain_text").asText(null));
     }
 
+    public static Optional<String> extractParentId(JsonNode node) {
+        var parent = node.path("parent");
+        var type = parent.path("type").asText();
+        return ofNullable(node.path("parent_id").textValue())
+                .or(() -> ofNullable(parent.path(type).textValue()).filter(_ -> OBJECT_PARENTS.contains(type)))
+                .map(id -> id.replace("-", ""));
+    }
+
     public static String safeName(String input) {
         return ofNullable(input)
                 .map(s -> s.replaceAll("[^a-zA-Z0-9-_.]", "_"))
                 .orElse("untitled");
     }
 
+    public static Path shard(String id) {
+        try {
+            var hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(id.replace("-", "").getBytes(UTF_8)));
+            return Path.of(SHARD.getName() + hash.substring(0, 2), SHARD.getName() + hash.substring(2, 4));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public static String mask(String token, int displaySize) {
         return token == null || token.length() < displaySize * 2
                 ? "****"
@@ -0,0 +1,11 @@
+package io.wliamp.notion.compa;
+
+import java.nio.file.Path;
+
+public record Workspace(String name, String token, Path root) {
+    public static Workspace of(String token, Path root) {
+        var parent = root.toAbsolutePath().getParent();
+        var name = parent == null || parent.getFileName() == null ? root.getFileName() : parent.getFileName();
+        return new Workspace(name.toString().toUpperCase(), token, root);
+    }
+}
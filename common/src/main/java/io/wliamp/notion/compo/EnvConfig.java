@@ -1,5 +1,10 @@
 package io.wliamp.notion.compo;
 
+import io.wliamp.notion.constant.Compression;
+import io.wliamp.notion.constant.IoMode;
+import io.wliamp.notion.constant.Layout;
+import io.wliamp.notion.constant.OutputFormat;
+import io.wliamp.notion.constant.RowMode;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -12,4 +17,91 @@ public class EnvConfig {
 
     @Value("${NOTION_INTEGRATION_TOKEN}")
     private String token;
+
+    @Value("${NOTION_API_URL:https://api.notion.com/v1}")
+    private String apiUrl;
+
+    @Value("${RESTORE_PARENT_PAGE_ID:}")
+    private String restoreParent;
+
+    @Value("${NOTION_UPLOAD_CONCURRENCY:4}")
+    private int uploadConcurrency;
+
+    @Value("${METRICS_FILE:}")
+    private String metricsFile;
+
+    @Value("${JSON_PRETTY:true}")
+    private boolean jsonPretty;
+
+    @Value("${JSON_COMPRESSION:none}")
+    private Compression jsonCompression;
+
+    @Value("${BACKUP_INCREMENTAL:false}")
+    private boolean incremental;
+
+    @Value("${BACKUP_FORMAT:directory}")
+    private OutputFormat backupFormat;
+
+    @Value("${BACKUP_LAYOUT:flat}")
+    private Layout backupLayout;
+
+    @Value("${BACKUP_ROWS:pages}")
+    private RowMode backupRows;
+
+    @Value("${BACKUP_ASSETS:false}")
+    private boolean backupAssets;
+
+    @Value("${ASSET_CONCURRENCY:4}")
+    private int assetConcurrency;
+
+    @Value("${BACKUP_JOURNAL_SYNC:32}")
+    private int journalSync;
+
+    @Value("${BACKUP_CONCURRENCY:4}")
+    private int objectConcurrency;
+
+    @Value("${BACKUP_CONCURRENCY_MIN:1}")
+    private int objectConcurrencyMin;
+
+    @Value("${BACKUP_CONCURRENCY_MAX:32}")
+    private int objectConcurrencyMax;
+
+    @Value("${BACKUP_WORKSPACES:}")
+    private String workspaces;
+
+    @Value("${BACKUP_VERIFY:false}")
+    private boolean verify;
+
+    @Value("${VERIFY_DEEP:false}")
+    private boolean verifyDeep;
+
+    @Value("${BACKUP_CLEANUP:false}")
+    private boolean backupCleanup;
+
+    @Value("${CLEANUP_PARALLELISM:0}")
+    private int cleanupParallelism;
+
+    @Value("${CLEANUP_DRY_RUN:false}")
+    private boolean cleanupDryRun;
+
+    @Value("${CLEANUP_PLAN:}")
+    private String cleanupPlan;
+
+    @Value("${IO_SCHEDULER:elastic}")
+    private IoMode ioMode;
+
+    @Value("${NOTION_FETCH_CONCURRENCY:8}")
+    private int fetchConcurrency;
+
+    @Value("${NOTION_FETCH_CACHE:512}")
+    private int fetchCache;
+
+    @Value("${NOTION_RATE_LIMIT:3}")
+    private double rateLimit;
+
+    @Value("${NOTION_RATE_BURST:3}")
+    private int rateBurst;
+
+    @Value("${NOTION_MAX_RETRIES:5}")
+    private int maxRetries;
 }
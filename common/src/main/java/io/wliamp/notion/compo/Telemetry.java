@@ -0,0 +1,102 @@
+package io.wliamp.notion.compo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.wliamp.notion.compa.Gate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static java.lang.System.nanoTime;
+import static java.nio.file.Files.*;
+import static java.nio.file.Paths.get;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.StreamSupport.stream;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class Telemetry {
+    private static final Pattern ID = Pattern.compile("[0-9a-fA-F]{8}-?[0-9a-fA-F]{4}-?[0-9a-fA-F]{4}-?[0-9a-fA-F]{4}-?[0-9a-fA-F]{12}");
+
+    private final MeterRegistry registry;
+    private final EnvConfig envConfig;
+    private final ObjectMapper mapper;
+
+    public void apiCall(String method, String path, String status, long nanos) {
+        registry.timer("notion.api.latency",
+                        "method", method,
+                        "endpoint", ID.matcher(path).replaceAll("{id}"),
+                        "status", status)
+                .record(nanos, NANOSECONDS);
+    }
+
+    public void count(String name, double amount, String... tags) {
+        registry.counter(name, tags).increment(amount);
+    }
+
+    public void inFlight(String name, Gate gate) {
+        registry.gauge(name + ".inflight", gate, Gate::active);
+        registry.gauge(name + ".limit", gate, Gate::limit);
+    }
+
+    public <T> Mono<T> time(String stage, Mono<T> mono) {
+        return Mono.defer(() -> {
+            var start = nanoTime();
+            return mono.doFinally(_ -> record(stage, start));
+        });
+    }
+
+    public <T> Flux<T> time(String stage, Flux<T> flux) {
+        return Flux.defer(() -> {
+            var start = nanoTime();
+            return flux.doFinally(_ -> record(stage, start));
+        });
+    }
+
+    public void export() {
+        if (envConfig.getMetricsFile().isBlank()) return;
+        var target = get(envConfig.getMetricsFile()).toAbsolutePath();
+
+        try {
+            createDirectories(target.getParent());
+            var temp = target.resolveSibling("." + target.getFileName() + ".tmp");
+            if (target.toString().endsWith(".json"))
+                mapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), registry.getMeters().stream()
+                        .map(this::describe)
+                        .toList());
+            else writeString(temp, ((PrometheusMeterRegistry) registry).scrape());
+            move(temp, target, ATOMIC_MOVE, REPLACE_EXISTING);
+            log.info("📈 Metrics exported to {}", target);
+        } catch (Exception e) {
+            log.error("❌ Metrics export FAILED for path={}", target, e);
+        }
+    }
+
+    private void record(String stage, long start) {
+        registry.timer("batch.stage", "stage", stage).record(nanoTime() - start, NANOSECONDS);
+    }
+
+    private Map<String, Object> describe(Meter meter) {
+        var description = new LinkedHashMap<String, Object>();
+        description.put("name", meter.getId().getName());
+        description.put("type", meter.getId().getType().name().toLowerCase());
+        description.put("tags", meter.getId().getTags().stream()
+                .collect(toMap(Tag::getKey, Tag::getValue)));
+        description.put("measurements", stream(meter.measure().spliterator(), false)
+                .collect(toMap(m -> m.getStatistic().getTagValueRepresentation(), m -> m.getValue())));
+        return description;
+    }
+}
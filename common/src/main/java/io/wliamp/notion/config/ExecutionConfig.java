@@ -0,0 +1,30 @@
+package io.wliamp.notion.config;
+
+import io.wliamp.notion.compo.EnvConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static java.lang.Runtime.getRuntime;
+import static java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor;
+import static reactor.core.scheduler.Schedulers.boundedElastic;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
+
+@Configuration
+public class ExecutionConfig {
+    @Bean
+    public ForkJoinPool deletePool(EnvConfig envConfig) {
+        var parallelism = envConfig.getCleanupParallelism();
+        return new ForkJoinPool(parallelism > 0 ? parallelism : getRuntime().availableProcessors());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler ioScheduler(EnvConfig envConfig) {
+        return switch (envConfig.getIoMode()) {
+            case ELASTIC -> boundedElastic();
+            case VIRTUAL -> fromExecutorService(newVirtualThreadPerTaskExecutor(), "io-virtual");
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package io.wliamp.notion.config;
+
+import io.wliamp.notion.compa.Gate;
+import io.wliamp.notion.compa.RateLimiter;
+import io.wliamp.notion.compo.Telemetry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static java.lang.Math.min;
+import static java.time.Duration.ofMillis;
+import static java.time.Duration.ofSeconds;
+import static java.util.concurrent.ThreadLocalRandom.current;
+import static reactor.core.publisher.Mono.*;
+
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitFilter implements ExchangeFilterFunction {
+    private static final long BASE_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final String ADMITTED = RateLimitFilter.class.getName() + ".admitted";
+
+    private final Supplier<RateLimiter> budget;
+    private final int maxRetries;
+    private final Telemetry telemetry;
+
+    private final Map<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return deferContextual(context -> {
+            var exchange = defer(() -> next.exchange(request)).flatMap(response -> throttled(request, response));
+            if (context.hasKey(ADMITTED)) return exchange;
+
+            var limiter = limiter(request.headers().getFirst(HttpHeaders.AUTHORIZATION));
+            return limiter.acquire().then(exchange).retryWhen(retry(limiter));
+        });
+    }
+
+    /** Spends the token budget before queueing for a permit and retries outside the gate, so no permit waits out a backoff. */
+    public <T> Flux<T> run(Gate gate, String token, Flux<T> call) {
+        var limiter = limiter("Bearer " + token);
+        return limiter.acquire()
+                .thenMany(gate.run(token, call.contextWrite(Context.of(ADMITTED, true))))
+                .retryWhen(retry(limiter));
+    }
+
+    public <T> Mono<T> run(Gate gate, String token, Mono<T> call) {
+        return run(gate, token, call.flux()).singleOrEmpty();
+    }
+
+    public static boolean overloaded(Throwable e) {
+        return e instanceof Throttled
+                || e instanceof IOException
+                || e instanceof WebClientRequestException
+                || e instanceof WebClientResponseException response
+                && (response.getStatusCode().value() == 429 || response.getStatusCode().is5xxServerError());
+    }
+
+    private RateLimiter limiter(String authorization) {
+        return limiters.computeIfAbsent(String.valueOf(authorization), _ -> budget.get());
+    }
+
+    private static Mono<ClientResponse> throttled(ClientRequest request, ClientResponse response) {
+        return response.statusCode().value() == 429
+                ? response.releaseBody().then(Mono.<ClientResponse>error(new Throttled(
+                request.method() + " " + request.url().getPath(), retryAfter(response))))
+                : just(response);
+    }
+
+    private Retry retry(RateLimiter limiter) {
+        return Retry.from(signals -> signals.concatMap(signal ->
+                signal.failure() instanceof Throttled throttled && signal.totalRetries() < maxRetries
+                        ? backoff(limiter, throttled, signal.totalRetries())
+                        : Mono.<Long>error(signal.failure())));
+    }
+
+    private Mono<Long> backoff(RateLimiter limiter, Throttled throttled, long attempt) {
+        var ceiling = min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << min(attempt, 16));
+        var wait = throttled.getRetryAfter().plus(ofMillis(current().nextLong(ceiling / 2, ceiling + 1)));
+        limiter.pause(wait);
+        telemetry.count("notion.api.retries", 1, "cause", "throttled");
+        log.warn("⏳ Throttled on {}, retry {}/{} in {} ms", throttled.getTarget(), attempt + 1, maxRetries, wait.toMillis());
+        return delay(wait);
+    }
+
+    private static Duration retryAfter(ClientResponse response) {
+        return response.headers().header("Retry-After").stream()
+                .findFirst()
+                .map(value -> {
+                    try {
+                        return ofSeconds(Long.parseLong(value.trim()));
+                    } catch (NumberFormatException e) {
+                        return Duration.ZERO;
+                    }
+                })
+                .orElse(Duration.ZERO);
+    }
+
+    @Getter
+    public static final class Throttled extends RuntimeException {
+        private final String target;
+        private final Duration retryAfter;
+
+        Throttled(String target, Duration retryAfter) {
+            super("Notion API throttled " + target + " (429), Retry-After=" + retryAfter.toSeconds() + "s");
+            this.target = target;
+            this.retryAfter = retryAfter;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.wliamp.notion.config;
+
+import io.wliamp.notion.compa.RateLimiter;
+import io.wliamp.notion.compo.EnvConfig;
+import io.wliamp.notion.compo.Telemetry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.codec.ClientCodecConfigurer;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import static java.lang.System.nanoTime;
+
+@Configuration
+public class WebClientConfig {
+    @Bean
+    public RateLimitFilter rateLimitFilter(EnvConfig envConfig, Telemetry telemetry) {
+        return new RateLimitFilter(
+                () -> new RateLimiter(envConfig.getRateLimit(), envConfig.getRateBurst()),
+                envConfig.getMaxRetries(),
+                telemetry);
+    }
+
+    @Bean
+    @Primary
+    public WebClient notionApi(EnvConfig envConfig, Telemetry telemetry, RateLimitFilter rateLimitFilter) {
+        return WebClient.builder()
+                .baseUrl(envConfig.getApiUrl())
+                .defaultHeader("Notion-Version", "2022-06-28")
+                .filter(rateLimitFilter)
+                .filter(measure(telemetry))
+                .codecs(this::configureCodecs)
+                .build();
+    }
+
+    private void configureCodecs(ClientCodecConfigurer configurer) {
+        configurer.defaultCodecs().maxInMemorySize(2 * 1024 * 1024);
+    }
+
+    private ExchangeFilterFunction measure(Telemetry telemetry) {
+        return (request, next) -> Mono.defer(() -> {
+            var start = nanoTime();
+            var method = request.method().name();
+            var path = request.url().getPath();
+            return next.exchange(request)
+                    .doOnNext(response -> telemetry.apiCall(
+                            method, path, String.valueOf(response.statusCode().value()), nanoTime() - start))
+                    .doOnError(_ -> telemetry.apiCall(method, path, "IO_ERROR", nanoTime() - start));
+        });
+    }
+}
@@ -3,16 +3,55 @@ package io.wliamp.notion.constant;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.util.regex.Pattern;
+
 @Getter
 @AllArgsConstructor
 public enum Constant {
     INVALID("untitled"),
     JSON1("meta"),
-    JSON2("blocks");
+    JSON2("blocks"),
+    STATE("state"),
+    MANIFEST("manifest"),
+    JOURNAL("journal.log"),
+    BATCH(".batch"),
+    ASSETS(".assets"),
+    ROWS("rows"),
+    ROW_STORE(".rows"),
+    SHARD("+"),
+    ARCHIVE("archive");
 
     private final String name;
 
     public String getJson() {
         return name + ".json";
     }
+
+    public boolean isJson(String fileName) {
+        return fileName.equals(getJson()) || fileName.startsWith(getJson() + ".");
+    }
+
+    public String getLines() {
+        return name + ".ndjson";
+    }
+
+    public boolean isLines(String fileName) {
+        return fileName.equals(getLines()) || fileName.startsWith(getLines() + ".");
+    }
+
+    public boolean isShard(String fileName) {
+        return fileName.matches(Pattern.quote(name) + "[0-9a-f]{2}");
+    }
+
+    public String getIndex() {
+        return name + ".idx";
+    }
+
+    public String getSegment(long generation) {
+        return name + "-" + generation + ".seg";
+    }
+
+    public boolean isArchive(String fileName) {
+        return fileName.equals(getIndex()) || fileName.matches(name + "-\\d+\\.seg");
+    }
 }
@@ -0,0 +1,6 @@
+package io.wliamp.notion.constant;
+
+public enum IoMode {
+    ELASTIC,
+    VIRTUAL
+}
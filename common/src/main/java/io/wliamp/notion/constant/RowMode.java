@@ -0,0 +1,7 @@
+package io.wliamp.notion.constant;
+
+public enum RowMode {
+    PAGES,
+    NDJSON,
+    BOTH
+}
@@ -0,0 +1,156 @@
+package io.wliamp.notion.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.wliamp.notion.compa.ArchiveReader;
+import io.wliamp.notion.compa.ArchiveRecord;
+import io.wliamp.notion.compa.ArchiveWriter;
+import io.wliamp.notion.compa.Archived;
+import io.wliamp.notion.compo.Telemetry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static io.wliamp.notion.constant.Constant.ARCHIVE;
+import static java.nio.file.Files.deleteIfExists;
+import static reactor.core.publisher.Mono.fromCallable;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ArchiveService {
+    private static final double DEAD_SHARE = 0.5;
+
+    private final ObjectMapper mapper;
+    private final Scheduler ioScheduler;
+    private final Telemetry telemetry;
+
+    public Mono<Boolean> exists(Path root) {
+        return fromCallable(() -> Files.exists(root.resolve(ARCHIVE.getIndex())))
+                .subscribeOn(ioScheduler);
+    }
+
+    public Mono<ArchiveWriter> open(Path root) {
+        return fromCallable(() -> {
+            var writer = ArchiveWriter.append(root);
+            prune(root, writer.generation());
+            return writer;
+        })
+                .subscribeOn(ioScheduler)
+                .doOnNext(w -> log.info("🗄 Archive opened at {} (generation {})", root, w.generation()))
+                .doOnError(e -> log.error("❌ Archive open() FAILED for root={}", root, e));
+    }
+
+    public Mono<Void> append(ArchiveWriter writer, String id, Object meta, Object blocks) {
+        return fromCallable(() -> {
+            var record = new ArchiveRecord(id, mapper.writeValueAsBytes(meta), mapper.writeValueAsBytes(blocks));
+            writer.append(record);
+            telemetry.count("io.bytes.written", record.length(), "format", "archive");
+            return record;
+        })
+                .subscribeOn(ioScheduler)
+                .doOnSuccess(r -> log.debug("📝 Object [{}] archived ({} bytes)", id, r.length()))
+                .doOnError(e -> log.error("❌ Archive append() FAILED for [{}]", id, e))
+                .then();
+    }
+
+    public Mono<Void> commit(ArchiveWriter writer) {
+        return fromCallable(() -> {
+            writer.close();
+            return writer;
+        })
+                .subscribeOn(ioScheduler)
+                .doOnSuccess(_ -> log.info("🗄 Archive index committed"))
+                .doOnError(e -> log.error("❌ Archive commit() FAILED", e))
+                .filter(w -> w.dead() > w.length() * DEAD_SHARE)
+                .flatMap(w -> compact(w.root(), Set.of())
+                        .doOnSubscribe(_ -> log.info("🗜 Archive holds {} of {} bytes superseded, compacting",
+                                w.dead(), w.length())));
+    }
+
+    public Flux<Archived> list(Path root) {
+        return Flux.using(() -> ArchiveReader.open(root), this::list, this::close)
+                .subscribeOn(ioScheduler)
+                .doOnError(e -> log.error("❌ Archive list() FAILED for root={}", root, e));
+    }
+
+    public Flux<Archived> list(ArchiveReader reader) {
+        return Flux.range(0, reader.index().size())
+                .concatMap(i -> fromCallable(() -> {
+                    var record = reader.meta(i);
+                    return new Archived(record.id(), mapper.readTree(record.meta()), reader.length(i));
+                }))
+                .subscribeOn(ioScheduler);
+    }
+
+    public Mono<ArchiveReader> reader(Path root) {
+        return fromCallable(() -> ArchiveReader.open(root))
+                .subscribeOn(ioScheduler)
+                .doOnError(e -> log.error("❌ Archive open() FAILED for root={}", root, e));
+    }
+
+    public void close(ArchiveReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            log.warn("⚠ Archive could not be closed: {}", e.getMessage());
+        }
+    }
+
+    public Mono<Map<String, Long>> sizes(Path root) {
+        return fromCallable(() -> {
+            try (var reader = ArchiveReader.open(root)) {
+                var sizes = new HashMap<String, Long>();
+                for (var i = 0; i < reader.index().size(); i++) sizes.put(reader.index().id(i), reader.length(i));
+                return Map.copyOf(sizes);
+            }
+        })
+                .subscribeOn(ioScheduler)
+                .doOnError(e -> log.error("❌ Archive sizes() FAILED for root={}", root, e));
+    }
+
+    public Mono<JsonNode> blocks(Path root, String id) {
+        return Mono.using(() -> ArchiveReader.open(root), reader -> blocks(reader, id), this::close);
+    }
+
+    public Mono<JsonNode> blocks(ArchiveReader reader, String id) {
+        return fromCallable(() -> {
+            var record = reader.find(id);
+            return record.isPresent() ? mapper.readTree(record.get().blocks()) : null;
+        })
+                .subscribeOn(ioScheduler)
+                .doOnError(e -> log.error("❌ Archive blocks() FAILED for [{}]", id, e));
+    }
+
+    public Mono<Void> compact(Path root, Set<String> drop) {
+        return fromCallable(() -> {
+            var generation = ArchiveWriter.compact(root, drop);
+            prune(root, generation);
+            return generation;
+        })
+                .subscribeOn(ioScheduler)
+                .doOnSuccess(g -> log.info("🗜 Archive compacted into generation {}, {} objects dropped", g, drop.size()))
+                .doOnError(e -> log.error("❌ Archive compact() FAILED for root={}", root, e))
+                .then();
+    }
+
+    private static void prune(Path root, long generation) throws IOException {
+        try (var files = Files.list(root)) {
+            for (var file : files.toList()) {
+                var name = file.getFileName().toString();
+                if (ARCHIVE.isArchive(name) && !name.equals(ARCHIVE.getIndex())
+                        && !name.equals(ARCHIVE.getSegment(generation))) deleteIfExists(file);
+            }
+        }
+    }
+}
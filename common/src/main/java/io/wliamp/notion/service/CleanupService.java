@@ -0,0 +1,313 @@
+package io.wliamp.notion.service;
+
+import io.wliamp.notion.compa.CleanupPlan;
+import io.wliamp.notion.compa.Deletion;
+import io.wliamp.notion.compa.ManifestEntry;
+import io.wliamp.notion.compa.ObjectEntry;
+import io.wliamp.notion.compo.EnvConfig;
+import io.wliamp.notion.compo.Telemetry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.wliamp.notion.compa.Utility.extractParentId;
+import static io.wliamp.notion.constant.Constant.*;
+import static java.nio.file.Paths.get;
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toSet;
+import static reactor.core.publisher.Flux.fromIterable;
+import static reactor.core.publisher.Mono.*;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CleanupService {
+    private final EnvConfig envConfig;
+    private final CommonService commonService;
+    private final PathService pathService;
+    private final JsonService jsonService;
+    private final ArchiveService archiveService;
+    private final ManifestService manifestService;
+    private final Telemetry telemetry;
+
+    public void cleanup() {
+        cleanup(get(envConfig.getTmp())).block();
+    }
+
+    public Mono<Void> cleanup(Path root) {
+        return defer(() -> new Sweep(root).scan());
+    }
+
+    public Mono<Void> cleanup(Path root, Collection<ManifestEntry> live, Set<String> gone) {
+        return defer(() -> new Sweep(root).reconcile(live, gone));
+    }
+
+    private final class Sweep {
+        private final Path root;
+        private final AtomicInteger totalScanned = new AtomicInteger(0);
+        private final AtomicInteger totalDeletedFiles = new AtomicInteger(0);
+        private final AtomicInteger totalDeletedFolders = new AtomicInteger(0);
+        private final AtomicInteger totalDroppedRecords = new AtomicInteger(0);
+        private final Queue<Deletion> deletions = new ConcurrentLinkedQueue<>();
+        private final Map<String, Long> archived = new ConcurrentHashMap<>();
+        private final Map<String, ManifestEntry> listed = new ConcurrentHashMap<>();
+        private final Map<String, ManifestEntry> manifest = new ConcurrentHashMap<>();
+
+        private Sweep(Path root) {
+            this.root = root;
+        }
+
+        private Mono<Void> scan() {
+            log.info("🚀 Starting cleanup for workspace: {}", root.getParent().getFileName().toString().toUpperCase());
+
+            return pathService.isExists(root)
+                    .flatMap(exists -> exists
+                            ? loadManifest().then(telemetry.time("scan", scanArchive()
+                                    .concatWith(Flux.defer(this::scanRows))
+                                    .concatWith(pathService.listObjects(root)
+                                            .doOnNext(_ -> totalScanned.incrementAndGet())
+                                            .flatMap(this::scanObjectDir))
+                                    .collectMap(ObjectEntry::id)))
+                            .flatMap(index -> telemetry.time("orphans", cleanOrphans(index, Set.of(), Set.of())))
+                            .then(defer(this::finish))
+                            : fromRunnable(() ->
+                            log.warn("⚠ Root folder not found at {}", root.toAbsolutePath())))
+                    .doOnError(e -> log.error("🔥 CLEANUP failed", e));
+        }
+
+        private Mono<Void> reconcile(Collection<ManifestEntry> live, Set<String> gone) {
+            var index = new HashMap<String, ObjectEntry>();
+            var folders = live.stream().map(ManifestEntry::path).filter(Objects::nonNull).collect(toSet());
+            live.forEach(entry -> {
+                manifest.put(entry.id(), entry);
+                index.put(entry.id(), new ObjectEntry(entry.id(), entry.parentId(), entry.archived(), dir(entry)));
+            });
+            log.info("🚀 Cleaning up {} after backup, {} objects live", root, index.size());
+
+            return telemetry.time("scan", archiveService.exists(root)
+                            .filter(Boolean::booleanValue)
+                            .flatMap(_ -> archiveService.sizes(root))
+                            .doOnNext(archived::putAll)
+                            .then(pathService.listObjects(root)
+                                    .filter(path -> !path.getFileName().toString().startsWith("."))
+                                    .doOnNext(_ -> totalScanned.incrementAndGet())
+                                    .filter(path -> !folders.contains(root.relativize(path).toString()))
+                                    .flatMap(path -> pathService.isDir(path).filter(Boolean::booleanValue)
+                                            .flatMap(_ -> removeFolder(path, "stale folder")
+                                                    .doOnSubscribe(_ -> log.info("🗑 Removing stale folder: {}", path))))
+                                    .then()))
+                    .then(defer(() -> telemetry.time("orphans", cleanOrphans(index, gone, archived.keySet().stream()
+                            .filter(id -> !index.containsKey(id))
+                            .collect(toSet())))))
+                    .then(defer(this::finish))
+                    .doOnError(e -> log.error("🔥 CLEANUP failed", e));
+        }
+
+        private Mono<Void> finish() {
+            return (envConfig.isCleanupDryRun() ? writePlan() : Mono.<Void>empty())
+                    .then(fromRunnable(() -> log.info("""
+                                    ✅ CLEANUP Summary for workspace [{}]{}
+                                    • Total items scanned: {}
+                                    • Files deleted: {}
+                                    • Folders deleted: {}
+                                    • Archived records dropped: {}
+                                    """,
+                            root.getFileName(),
+                            envConfig.isCleanupDryRun() ? " (dry run, nothing deleted)" : "",
+                            totalScanned.get(),
+                            totalDeletedFiles.get(),
+                            totalDeletedFolders.get(),
+                            totalDroppedRecords.get()
+                    )));
+        }
+
+        private Mono<ObjectEntry> scanObjectDir(Path dir) {
+            return pathService.isDir(dir)
+                    .flatMap(isDir -> isDir
+                            ? handleDir(dir, dir.getFileName().toString())
+                            : ARCHIVE.isArchive(dir.getFileName().toString()) || MANIFEST.isJson(dir.getFileName().toString())
+                            ? Mono.<ObjectEntry>empty()
+                            : removeFile(dir, "stray file")
+                            .doOnSubscribe(_ -> log.info("🗑 Removing stray file: {}", dir))
+                            .then(Mono.<ObjectEntry>empty())
+                    );
+        }
+
+        private Mono<ObjectEntry> handleDir(Path dir, String name) {
+            return just(name)
+                    .filter(n -> !n.startsWith("."))
+                    .flatMap(n -> just(n)
+                            .filter(nn -> nn.startsWith(INVALID.getName()))
+                            .flatMap(nn -> removeFolder(dir, "untitled folder")
+                                    .doOnSubscribe(_ -> log.info("🗑 Removing untitled folder: {}", nn))
+                                    .then(Mono.<ObjectEntry>empty()))
+                            .switchIfEmpty(
+                                    pathService.listPath(dir)
+                                            .doOnNext(_ -> totalScanned.incrementAndGet())
+                                            .flatMap(file -> pathService.isDir(file)
+                                                    .flatMap(isDir2 -> isDir2
+                                                            ? removeFolder(file, "unexpected subdirectory")
+                                                            .doOnSubscribe(_ -> log.debug("🗑 Removing unexpected subdirectory: {}", file))
+                                                            : cleanFile(file)))
+                                            .then(indexObject(dir))
+                            )
+                    );
+        }
+
+        private Mono<Void> cleanFile(Path file) {
+            return just(file.getFileName().toString())
+                    .filter(n -> !(JSON1.isJson(n) || JSON2.isJson(n) || ROWS.isLines(n)))
+                    .flatMap(n -> removeFile(file, "extra file")
+                            .doOnSubscribe(_ -> log.debug("🗑 Removing extra file: {}", n)))
+                    .switchIfEmpty(empty());
+        }
+
+        private Mono<Void> loadManifest() {
+            return manifestService.load(root)
+                    .doOnNext(entries -> {
+                        manifest.putAll(entries);
+                        entries.values().stream()
+                                .filter(entry -> dir(entry) != null)
+                                .forEach(entry -> listed.put(entry.path(), entry));
+                    })
+                    .then();
+        }
+
+        private Mono<Void> pruneManifest(Set<String> removed) {
+            if (manifest.isEmpty() || removed.isEmpty() || envConfig.isCleanupDryRun()) return empty();
+            removed.forEach(manifest::remove);
+            return manifestService.write(root, manifest.values());
+        }
+
+        private Mono<ObjectEntry> indexObject(Path objectDir) {
+            var entry = listed.get(root.relativize(objectDir).toString());
+            if (entry != null) return just(new ObjectEntry(entry.id(), entry.parentId(), entry.archived(), objectDir));
+
+            return jsonService.read(objectDir.resolve(JSON1.getJson()))
+                    .map(node -> new ObjectEntry(
+                            node.path("id").asText().replace("-", ""),
+                            extractParentId(node).orElse(null),
+                            node.path("archived").asBoolean(false),
+                            objectDir))
+                    .onErrorResume(e -> {
+                        log.error("❌ Failed to process [{}]: {}", objectDir, e.getMessage());
+                        return just(new ObjectEntry(objectDir.getFileName().toString(), null, false, objectDir));
+                    });
+        }
+
+        private Flux<ObjectEntry> scanRows() {
+            return fromIterable(manifest.values())
+                    .filter(entry -> entry.path() == null)
+                    .map(entry -> new ObjectEntry(entry.id(), entry.parentId(), entry.archived(), null));
+        }
+
+        private Path dir(ManifestEntry entry) {
+            return entry.path() == null || ARCHIVE.getIndex().equals(entry.path()) ? null : root.resolve(entry.path());
+        }
+
+        private Flux<ObjectEntry> scanArchive() {
+            return archiveService.exists(root)
+                    .filter(Boolean::booleanValue)
+                    .flatMapMany(_ -> archiveService.list(root))
+                    .doOnNext(a -> {
+                        totalScanned.incrementAndGet();
+                        archived.put(a.id(), a.bytes());
+                    })
+                    .map(a -> new ObjectEntry(
+                            a.id(),
+                            extractParentId(a.meta()).orElse(null),
+                            a.meta().path("archived").asBoolean(false),
+                            null));
+        }
+
+        private Mono<Void> cleanOrphans(Map<String, ObjectEntry> index, Set<String> gone, Set<String> stale) {
+            var orphans = commonService.findOrphans(index, gone);
+            var records = orphans.stream().filter(archived::containsKey).collect(toSet());
+            records.addAll(stale);
+            log.info("🔎 Indexed {} objects, {} orphaned", index.size(), orphans.size());
+
+            return fromIterable(orphans)
+                    .map(index::get)
+                    .filter(entry -> entry.dir() != null)
+                    .flatMap(entry -> removeFolder(entry.dir(), "orphan folder")
+                            .doOnSubscribe(_ -> log.info("🗑 Removing orphan folder: {}", entry.dir())))
+                    .then(defer(() -> dropRecords(records)))
+                    .then(defer(() -> pruneManifest(orphans)));
+        }
+
+        private Mono<Void> dropRecords(Set<String> ids) {
+            if (ids.isEmpty()) return empty();
+            var index = root.resolve(ARCHIVE.getIndex());
+
+            return (envConfig.isCleanupDryRun()
+                    ? fromRunnable(() -> ids.forEach(id -> deletions.add(new Deletion(
+                    index + "#" + id, "orphan record", 0, 0, archived.get(id)))))
+                    : archiveService.compact(root, ids)
+                    .then(fromIterable(ids)
+                            .flatMap(id -> jsonService.locate(root.resolve(ROW_STORE.getName()).resolve(id + ".ndjson")))
+                            .flatMap(pathService::removeFile)
+                            .then()))
+                    .then()
+                    .doOnSuccess(_ -> {
+                        totalDroppedRecords.addAndGet(ids.size());
+                        telemetry.count("cleanup.deleted", ids.size(), "kind", "record", "reason", "orphan record");
+                        log.info("🗑 Dropping {} orphan records from {}", ids.size(), index);
+                    });
+        }
+
+        private Mono<Void> removeFolder(Path dir, String reason) {
+            return (envConfig.isCleanupDryRun() ? plan(dir, reason) : pathService.cleanRecursively(dir))
+                    .doOnSuccess(_ -> {
+                        totalDeletedFolders.incrementAndGet();
+                        telemetry.count("cleanup.deleted", 1, "kind", "folder", "reason", reason);
+                    });
+        }
+
+        private Mono<Void> removeFile(Path file, String reason) {
+            return (envConfig.isCleanupDryRun() ? plan(file, reason) : pathService.removeFile(file))
+                    .doOnSuccess(_ -> {
+                        totalDeletedFiles.incrementAndGet();
+                        telemetry.count("cleanup.deleted", 1, "kind", "file", "reason", reason);
+                    });
+        }
+
+        private Mono<Void> plan(Path path, String reason) {
+            return pathService.measure(path)
+                    .doOnNext(usage -> deletions.add(new Deletion(
+                            path.toString(), reason, usage.files(), usage.folders(), usage.bytes())))
+                    .then();
+        }
+
+        private Mono<Void> writePlan() {
+            var entries = deletions.stream()
+                    .sorted(comparing(Deletion::path))
+                    .toList();
+            var plan = new CleanupPlan(
+                    root.toAbsolutePath().toString(),
+                    entries.stream().mapToLong(Deletion::files).sum(),
+                    entries.stream().mapToLong(Deletion::folders).sum(),
+                    entries.stream().mapToLong(Deletion::bytes).sum(),
+                    entries);
+            var file = envConfig.getCleanupPlan().isBlank()
+                    ? root.resolveSibling("cleanup-plan.json")
+                    : get(envConfig.getCleanupPlan());
+
+            return jsonService.create(file, plan)
+                    .doOnSuccess(_ -> log.info("📋 Dry run: {} deletions planned ({} files, {} folders, {} bytes) written to {}",
+                            entries.size(), plan.files(), plan.folders(), plan.bytes(), file));
+        }
+    }
+}
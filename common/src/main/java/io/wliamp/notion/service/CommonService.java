@@ -1,16 +1,20 @@
 package io.wliamp.notion.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import io.wliamp.notion.compa.ObjectEntry;
 import io.wliamp.notion.compa.Title;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
-import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 import static io.wliamp.notion.constant.Constant.*;
-import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toSet;
 import static java.util.stream.StreamSupport.stream;
 import static reactor.core.publisher.Mono.*;
 import static reactor.core.publisher.Mono.fromCallable;
@@ -19,48 +23,71 @@ import static reactor.core.publisher.Mono.fromCallable;
 @Slf4j
 @RequiredArgsConstructor
 public class CommonService {
-    private final PathService pathService;
-
     public Mono<String> safeId(JsonNode node) {
         return fromCallable(() -> node.get("id").asText().replace("-", ""))
                 .doOnError(e -> log.error("❌ safeId() FAILED from node={}", node, e));
     }
 
     public Mono<Title> extractTitle(JsonNode node) {
-        return defer(() -> fromCallable(() -> {
-                    var props = node.get("properties");
-                    return props != null && stream(props.spliterator(), false)
-                            .anyMatch(prop -> prop.has("title"));
-                })
-                        .flatMap(hasTitle -> hasTitle ? safeId(node) : empty())
-                        .switchIfEmpty(fromCallable(() -> node.has("title"))
-                                .flatMap(has -> has ? safeId(node) : empty())
-                        ).switchIfEmpty(safeId(node).map(id -> INVALID.getName() + "-" + id))
-                        .map(name -> {
-                            var source = node.has("properties") && node.get("properties").has("title")
-                                    ? "properties.title"
-                                    : node.has("title")
-                                    ? "title"
-                                    : "id";
-                            return new Title(name, source);
-                        })
-        ).doOnError(e -> log.error("❌ extractTitle() FAILED from node={}", node, e));
+        return defer(() -> fromCallable(() -> title(node)))
+                .doOnError(e -> log.error("❌ extractTitle() FAILED from node={}", node, e));
+    }
+
+    public Title title(JsonNode node) {
+        var id = node.get("id").asText().replace("-", "");
+        var props = node.get("properties");
+        var titled = props != null && stream(props.spliterator(), false).anyMatch(prop -> prop.has("title"))
+                || node.has("title");
+        var source = props != null && props.has("title")
+                ? "properties.title"
+                : node.has("title")
+                ? "title"
+                : "id";
+        return new Title(titled ? id : INVALID.getName() + "-" + id, source);
     }
 
-    public Mono<Boolean> isOrphan(JsonNode node, Path dir) {
-        var parentId = node.path("parent_id").asText(null);
-        var archived = node.path("archived").asBoolean(false);
-        var parentPath = dir.resolve(ofNullable(parentId).orElse(""));
+    /** A parent missing from the index makes a root; only archived, gone or orphaned parents make orphans. */
+    public Set<String> findOrphans(Map<String, ObjectEntry> index, Set<String> gone) {
+        var verdicts = new HashMap<String, Boolean>();
+        index.keySet().forEach(id -> resolveOrphan(id, index, gone, verdicts));
 
-        return pathService.isExists(parentPath)
-                .map(parentExists -> {
-                    var orphan = !(parentId == null || parentExists) || archived;
+        var orphans = verdicts.entrySet().stream()
+                .filter(Map.Entry::getValue)
+                .map(Map.Entry::getKey)
+                .filter(index::containsKey)
+                .collect(toSet());
+        log.debug("🔎 Orphan scan: {} objects, {} orphans", index.size(), orphans.size());
+        return orphans;
+    }
 
-                    log.debug("🔎 Checking orphan: parentId={}, archived={}, parentExists={}, orphan={}",
-                            parentId, archived, parentExists, orphan);
+    private void resolveOrphan(String id, Map<String, ObjectEntry> index, Set<String> gone,
+                               Map<String, Boolean> verdicts) {
+        var chain = new LinkedHashSet<String>();
+        var current = id;
+        boolean orphan;
 
-                    return orphan;
-                })
-                .doOnError(e -> log.error("❌ isOrphan() FAILED for dir={}", dir, e));
+        while (true) {
+            var known = verdicts.get(current);
+            var entry = index.get(current);
+            if (known != null) {
+                orphan = known;
+                break;
+            }
+            if (entry == null) {
+                orphan = gone.contains(current);
+                break;
+            }
+            if (entry.archived()) {
+                orphan = true;
+                break;
+            }
+            if (entry.parentId() == null || !chain.add(current)) {
+                orphan = false;
+                break;
+            }
+            current = entry.parentId();
+        }
+        chain.add(current);
+        for (var visited : chain) verdicts.put(visited, orphan);
     }
 }
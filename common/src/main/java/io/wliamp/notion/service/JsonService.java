@@ -2,37 +2,171 @@ package io.wliamp.notion.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import io.wliamp.notion.compo.EnvConfig;
+import io.wliamp.notion.compo.Telemetry;
+import io.wliamp.notion.constant.Compression;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
-import static java.nio.file.Files.writeString;
-import static reactor.core.publisher.Mono.fromCallable;
-import static reactor.core.scheduler.Schedulers.boundedElastic;
+import static java.nio.channels.Channels.newInputStream;
+import static java.nio.channels.Channels.newOutputStream;
+import static java.nio.channels.FileChannel.open;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.exists;
+import static java.nio.file.Files.move;
+import static java.nio.file.Files.size;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+import static reactor.core.publisher.Mono.*;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class JsonService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private final ObjectMapper mapper;
+    private final EnvConfig envConfig;
+    private final Telemetry telemetry;
+    private final Scheduler ioScheduler;
 
     public Mono<JsonNode> read(Path path) {
-        return fromCallable(() -> mapper.readTree(path.toFile()))
+        return locate(path)
+                .switchIfEmpty(error(() -> new NoSuchFileException(path.toString())))
+                .flatMap(file -> fromCallable(() -> {
+                    try (var in = decompress(new BufferedInputStream(newInputStream(open(file, READ)), BUFFER_SIZE))) {
+                        return mapper.readTree(in);
+                    }
+                }))
                 .doOnError(e -> log.error("❌ JSON read() FAILED for path={}", path, e));
     }
 
+    public <T> Flux<T> readValues(Path path, Class<T> type) {
+        return locate(path)
+                .flatMapMany(file -> Flux.using(
+                        () -> mapper.readerFor(type).<T>readValues(
+                                decompress(new BufferedInputStream(newInputStream(open(file, READ)), BUFFER_SIZE))),
+                        iterator -> Flux.fromIterable(() -> iterator),
+                        iterator -> {
+                            try {
+                                iterator.close();
+                            } catch (IOException e) {
+                                log.warn("⚠ JSON stream could not be closed for path={}: {}", path, e.getMessage());
+                            }
+                        }))
+                .subscribeOn(ioScheduler)
+                .doOnError(e -> log.error("❌ JSON readValues() FAILED for path={}", path, e));
+    }
+
     public Mono<Void> create(Path path, Object obj) {
-        return fromCallable(() -> mapper.writerWithDefaultPrettyPrinter().writeValueAsString(obj))
-                .flatMap(json -> fromCallable(() -> {
-                            writeString(path, json);
-                            return path;
-                        })
-                        .subscribeOn(boundedElastic()))
+        return create(path, obj, envConfig.isJsonPretty());
+    }
+
+    public Mono<Void> create(Path path, Object obj, boolean pretty) {
+        var compression = envConfig.getJsonCompression();
+        var target = path.resolveSibling(path.getFileName() + compression.getExtension());
+        var temp = target.resolveSibling("." + target.getFileName() + ".tmp");
+
+        return fromCallable(() -> {
+            try (var generator = mapper.getFactory().createGenerator(compress(new BufferedOutputStream(
+                    newOutputStream(open(temp, CREATE, TRUNCATE_EXISTING, WRITE)), BUFFER_SIZE), compression))) {
+                (pretty ? mapper.writerWithDefaultPrettyPrinter() : mapper.writer())
+                        .writeValue(generator, obj);
+            } catch (IOException | RuntimeException e) {
+                deleteIfExists(temp);
+                throw e;
+            }
+            move(temp, target, ATOMIC_MOVE, REPLACE_EXISTING);
+            for (var stale : Compression.values())
+                if (stale != compression) deleteIfExists(path.resolveSibling(path.getFileName() + stale.getExtension()));
+            telemetry.count("io.bytes.written", size(target), "format", compression.name().toLowerCase());
+            return target;
+        })
+                .subscribeOn(ioScheduler)
                 .doOnSuccess(p -> log.info("📝 JSON file created at {}", p))
                 .doOnError(e -> log.error("❌ JSON create() FAILED for path={}", path, e))
                 .then();
     }
+
+    public Mono<Long> createLines(Path path, Flux<?> values) {
+        var compression = envConfig.getJsonCompression();
+        var target = path.resolveSibling(path.getFileName() + compression.getExtension());
+        var temp = target.resolveSibling("." + target.getFileName() + ".tmp");
+
+        return using(
+                () -> mapper.writer().withRootValueSeparator("\n").writeValues(compress(new BufferedOutputStream(
+                        newOutputStream(open(temp, CREATE, TRUNCATE_EXISTING, WRITE)), BUFFER_SIZE), compression)),
+                lines -> values
+                        .publishOn(ioScheduler)
+                        .concatMap(value -> fromCallable(() -> lines.write(value)))
+                        .count()
+                        .flatMap(count -> fromCallable(() -> {
+                            lines.close();
+                            move(temp, target, ATOMIC_MOVE, REPLACE_EXISTING);
+                            for (var stale : Compression.values())
+                                if (stale != compression)
+                                    deleteIfExists(path.resolveSibling(path.getFileName() + stale.getExtension()));
+                            telemetry.count("io.bytes.written", size(target), "format", "ndjson");
+                            return count;
+                        })),
+                lines -> {
+                    try {
+                        lines.close();
+                        deleteIfExists(temp);
+                    } catch (IOException e) {
+                        log.warn("⚠ JSON lines could not be closed for path={}: {}", path, e.getMessage());
+                    }
+                })
+                .subscribeOn(ioScheduler)
+                .doOnSuccess(count -> log.info("📝 {} JSON lines written to {}", count, target))
+                .doOnError(e -> log.error("❌ JSON createLines() FAILED for path={}", path, e));
+    }
+
+    public Mono<Path> locate(Path path) {
+        return Flux.fromArray(Compression.values())
+                .map(c -> path.resolveSibling(path.getFileName() + c.getExtension()))
+                .concatMap(p -> fromCallable(() -> exists(p))
+                        .filter(Boolean::booleanValue)
+                        .map(_ -> p))
+                .next()
+                .subscribeOn(ioScheduler);
+    }
+
+    private static OutputStream compress(OutputStream out, Compression compression) throws IOException {
+        return switch (compression) {
+            case NONE -> out;
+            case GZIP -> new GZIPOutputStream(out, BUFFER_SIZE);
+            case ZSTD -> new ZstdOutputStream(out);
+        };
+    }
+
+    private static InputStream decompress(BufferedInputStream in) throws IOException {
+        in.mark(4);
+        var magic = in.readNBytes(4);
+        in.reset();
+
+        return magic.length >= 2 && (magic[0] & 0xff) == 0x1f && (magic[1] & 0xff) == 0x8b
+                ? new GZIPInputStream(in, BUFFER_SIZE)
+                : magic.length == 4 && (magic[0] & 0xff) == 0x28 && (magic[1] & 0xff) == 0xb5
+                && (magic[2] & 0xff) == 0x2f && (magic[3] & 0xff) == 0xfd
+                ? new ZstdInputStream(in)
+                : in;
+    }
 }
@@ -0,0 +1,71 @@
+package io.wliamp.notion.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.wliamp.notion.compa.ManifestEntry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static io.wliamp.notion.compa.Utility.extractParentId;
+import static io.wliamp.notion.constant.Constant.MANIFEST;
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsFirst;
+import static reactor.core.publisher.Mono.fromCallable;
+import static reactor.core.publisher.Mono.just;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ManifestService {
+    private final JsonService jsonService;
+    private final ObjectMapper mapper;
+
+    public Flux<ManifestEntry> read(Path root) {
+        return jsonService.readValues(root.resolve(MANIFEST.getJson()), ManifestEntry.class);
+    }
+
+    public Mono<Map<String, ManifestEntry>> load(Path root) {
+        return read(root)
+                .collectMap(ManifestEntry::id)
+                .doOnNext(entries -> log.info("📒 Loaded manifest: {} objects", entries.size()))
+                .onErrorResume(e -> {
+                    log.warn("⚠ Manifest unreadable at {}, ignoring it: {}", root, e.getMessage());
+                    return just(Map.of());
+                });
+    }
+
+    public Mono<Void> write(Path root, Collection<ManifestEntry> entries) {
+        var sorted = entries.stream()
+                .sorted(comparing(ManifestEntry::path, nullsFirst(naturalOrder())).thenComparing(ManifestEntry::id))
+                .toList();
+
+        return jsonService.create(root.resolve(MANIFEST.getJson()), sorted, false)
+                .doOnSuccess(_ -> log.info("📒 Manifest written: {} objects", sorted.size()));
+    }
+
+    public ManifestEntry describe(JsonNode node, String path, String hash) {
+        return new ManifestEntry(
+                node.path("id").asText().replace("-", ""),
+                extractParentId(node).orElse(null),
+                node.path("object").asText(null),
+                node.path("last_edited_time").asText(null),
+                node.path("archived").asBoolean(false),
+                path,
+                hash);
+    }
+
+    public Mono<String> hash(Object tree) {
+        return fromCallable(() -> HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(mapper.writeValueAsBytes(tree))));
+    }
+}
@@ -1,22 +1,42 @@
 package io.wliamp.notion.service;
 
+import io.wliamp.notion.compa.Usage;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.BaseStream;
 
+import static io.wliamp.notion.constant.Constant.SHARD;
 import static java.nio.file.Files.*;
-import static java.util.Comparator.reverseOrder;
+import static java.nio.file.FileVisitResult.CONTINUE;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
 import static reactor.core.publisher.Flux.*;
 import static reactor.core.publisher.Mono.fromCallable;
-import static reactor.core.scheduler.Schedulers.boundedElastic;
+import static reactor.core.publisher.Mono.fromRunnable;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class PathService {
+    private final ForkJoinPool deletePool;
+    private final Scheduler ioScheduler;
+
     public Flux<Path> listPath(Path path) {
         return isExists(path)
                 .filter(Boolean::booleanValue)
@@ -33,7 +53,14 @@ public class PathService {
                     log.error("❌ listPath() FAILED for path={}", path, e);
                     return empty();
                 })
-                .subscribeOn(boundedElastic());
+                .subscribeOn(ioScheduler);
+    }
+
+    public Flux<Path> listObjects(Path root) {
+        return listPath(root)
+                .flatMap(path -> SHARD.isShard(path.getFileName().toString())
+                        ? isDir(path).flatMapMany(dir -> dir ? listObjects(path) : just(path))
+                        : just(path));
     }
 
     public Mono<Boolean> isExists(Path path) {
@@ -42,7 +69,7 @@ public class PathService {
                     log.error("❌ isExists() FAILED for path={}", path, e);
                     return Mono.just(false);
                 })
-                .subscribeOn(boundedElastic());
+                .subscribeOn(ioScheduler);
     }
 
     public Mono<Boolean> isDir(Path path) {
@@ -51,7 +78,7 @@ public class PathService {
                     log.error("❌ isDir() FAILED for path={}", path, e);
                     return Mono.just(false);
                 })
-                .subscribeOn(boundedElastic());
+                .subscribeOn(ioScheduler);
     }
 
     public Mono<Path> createDir(Path path) {
@@ -61,20 +88,24 @@ public class PathService {
                     log.error("❌ createDir() FAILED for path={}", path, e);
                     return Mono.empty();
                 })
-                .subscribeOn(boundedElastic());
+                .subscribeOn(ioScheduler);
+    }
+
+    public Mono<Path> move(Path source, Path target) {
+        return fromCallable(() -> {
+            if (exists(target)) throw new FileAlreadyExistsException(target.toString());
+            return Files.move(source, createDirectories(target.getParent()).resolve(target.getFileName()), ATOMIC_MOVE);
+        })
+                .doOnSuccess(p -> log.debug("🚚 Moved {} to {}", source, p))
+                .doOnError(e -> log.error("❌ move() FAILED for {} -> {}", source, target, e))
+                .subscribeOn(ioScheduler);
     }
 
-    @SuppressWarnings("resource")
     public Mono<Void> cleanRecursively(Path path) {
         return isExists(path)
                 .filter(Boolean::booleanValue)
-                .flatMap(_ -> Mono.using(
-                        () -> walk(path).sorted(reverseOrder()),
-                        stream -> fromStream(stream)
-                                .concatMap(this::removeFile)
-                                .then(),
-                        BaseStream::close
-                ).doOnSuccess(v -> log.debug("🧹 Cleaned {}", path.toAbsolutePath())))
+                .flatMap(_ -> fromRunnable(() -> deletePool.invoke(new DeleteTask(path)))
+                        .doOnSuccess(v -> log.debug("🧹 Cleaned {}", path.toAbsolutePath())))
                 .switchIfEmpty(defer(() -> {
                     log.warn("⚠ cleanRecursively() skipped, path not found: {}", path.toAbsolutePath());
                     return Mono.empty();
@@ -83,7 +114,36 @@ public class PathService {
                     log.error("❌ cleanRecursively() FAILED for path={}", path, e);
                     return Mono.empty();
                 })
-                .subscribeOn(boundedElastic());
+                .then()
+                .subscribeOn(ioScheduler);
+    }
+
+    public Mono<Usage> measure(Path path) {
+        return fromCallable(() -> {
+            var files = new AtomicLong();
+            var folders = new AtomicLong();
+            var bytes = new AtomicLong();
+            walkFileTree(path, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    folders.incrementAndGet();
+                    return CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    files.incrementAndGet();
+                    bytes.addAndGet(attrs.size());
+                    return CONTINUE;
+                }
+            });
+            return new Usage(files.get(), folders.get(), bytes.get());
+        })
+                .onErrorResume(e -> {
+                    log.error("❌ measure() FAILED for path={}", path, e);
+                    return Mono.just(new Usage(0, 0, 0));
+                })
+                .subscribeOn(ioScheduler);
     }
 
     public Mono<Void> removeFile(Path path) {
@@ -97,6 +157,29 @@ public class PathService {
                     return Mono.empty();
                 })
                 .then()
-                .subscribeOn(boundedElastic());
+                .subscribeOn(ioScheduler);
+    }
+
+    private static final class DeleteTask extends RecursiveAction {
+        private final Path path;
+
+        private DeleteTask(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                if (isDirectory(path, NOFOLLOW_LINKS)) {
+                    try (var children = list(path)) {
+                        invokeAll(children.map(DeleteTask::new).toList());
+                    }
+                }
+                deleteIfExists(path);
+                log.trace("🗑 Removed {}", path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 }
@@ -0,0 +1,63 @@
+package io.wliamp.notion.compa;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+
+import static io.wliamp.notion.config.RateLimitFilter.overloaded;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveLimitTest {
+    private static final long FAST = 1_000_000;
+
+    @Test
+    void clampsTheGateToMinAndMax() {
+        var gate = new Gate(50);
+        var limit = new AdaptiveLimit(gate, 2, 8);
+        assertThat(limit.limit()).isEqualTo(8);
+        assertThat(gate.limit()).isEqualTo(8);
+
+        for (var i = 0; i < 1_000; i++) limit.onSample(FAST, false);
+        assertThat(limit.limit()).isEqualTo(8);
+
+        for (var i = 0; i < 1_000; i++) limit.onSample(FAST, true);
+        assertThat(limit.limit()).isEqualTo(2);
+        assertThat(gate.limit()).isEqualTo(2);
+        assertThat(limit.peak()).isEqualTo(8);
+
+        assertThat(new AdaptiveLimit(new Gate(1), 2, 8).limit()).isEqualTo(2);
+        assertThat(new AdaptiveLimit(new Gate(4), 0, 0).limit()).isEqualTo(1);
+    }
+
+    @Test
+    void growsWhileFastAndHealthy() {
+        var limit = new AdaptiveLimit(new Gate(2), 2, 8);
+
+        for (var i = 0; i < 100; i++) limit.onSample(FAST, false);
+
+        assertThat(limit.limit()).isGreaterThan(2);
+    }
+
+    @Test
+    void backsOffOnOverloadOnly() {
+        assertThat(decreasesOn(status(429))).isTrue();
+        assertThat(decreasesOn(status(500))).isTrue();
+        assertThat(decreasesOn(status(503))).isTrue();
+        assertThat(decreasesOn(new IOException("Connection prematurely closed"))).isTrue();
+        assertThat(decreasesOn(status(404))).isFalse();
+        assertThat(decreasesOn(status(400))).isFalse();
+    }
+
+    private static boolean decreasesOn(Throwable e) {
+        var gate = new Gate(8);
+        var limit = new AdaptiveLimit(gate, 1, 16);
+        for (var i = 0; i < 8; i++) limit.onSample(FAST, overloaded(e));
+        return limit.limit() < 8;
+    }
+
+    private static WebClientResponseException status(int code) {
+        return WebClientResponseException.create(code, "", HttpHeaders.EMPTY, new byte[0], null);
+    }
+}
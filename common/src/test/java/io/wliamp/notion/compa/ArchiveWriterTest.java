@@ -0,0 +1,95 @@
+package io.wliamp.notion.compa;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static io.wliamp.notion.constant.Constant.ARCHIVE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.size;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArchiveWriterTest {
+    private static final String A = "0123456789abcdef0123456789abcdef";
+    private static final String B = "11111111-2222-3333-4444-555555555555";
+    private static final String C = "fedcba9876543210fedcba9876543210";
+
+    @TempDir
+    Path root;
+
+    @Test
+    void recoversCompleteRecordsAndCutsTornTail() throws IOException {
+        try (var writer = ArchiveWriter.append(root)) {
+            writer.append(record(A, "a"));
+        }
+        var b = record(ArchiveIndex.normalize(B), "b");
+        var c = record(C, "c");
+        try (var segment = FileChannel.open(root.resolve(ARCHIVE.getSegment(0)), WRITE)) {
+            segment.position(segment.size());
+            b.write(segment);
+            c.write(segment);
+            segment.truncate(segment.size() - 3);
+        }
+
+        ArchiveWriter.append(root).close();
+
+        try (var reader = ArchiveReader.open(root)) {
+            assertThat(reader.index().size()).isEqualTo(2);
+            assertThat(reader.find(A)).map(r -> new String(r.blocks(), UTF_8)).contains("\"a\"");
+            assertThat(reader.find(B)).map(r -> new String(r.blocks(), UTF_8)).contains("\"b\"");
+            assertThat(reader.find(C)).isEmpty();
+        }
+        assertThat(size(root.resolve(ARCHIVE.getSegment(0)))).isEqualTo(record(A, "a").length() + b.length());
+    }
+
+    @Test
+    void countsSupersededCopiesAsDeadAcrossReopen() throws IOException {
+        var first = record(A, "first");
+        try (var writer = ArchiveWriter.append(root)) {
+            writer.append(first);
+            writer.append(record(C, "c"));
+            writer.append(record(A, "second"));
+            assertThat(writer.dead()).isEqualTo(first.length());
+        }
+
+        try (var writer = ArchiveWriter.append(root)) {
+            assertThat(writer.dead()).isEqualTo(first.length());
+            assertThat(writer.length()).isEqualTo(size(root.resolve(ARCHIVE.getSegment(0))));
+        }
+    }
+
+    @Test
+    void compactionKeepsLatestCopiesAndDropsTheRest() throws IOException {
+        try (var writer = ArchiveWriter.append(root)) {
+            writer.append(record(A, "first"));
+            writer.append(record(B, "b"));
+            writer.append(record(C, "c"));
+            writer.append(record(A, "second"));
+        }
+
+        var generation = ArchiveWriter.compact(root, Set.of(B));
+
+        assertThat(generation).isEqualTo(1);
+        try (var reader = ArchiveReader.open(root)) {
+            assertThat(reader.index().generation()).isEqualTo(1);
+            assertThat(reader.index().size()).isEqualTo(2);
+            assertThat(reader.find(A)).map(r -> new String(r.blocks(), UTF_8)).contains("\"second\"");
+            assertThat(reader.find(B)).isEmpty();
+            assertThat(reader.find(C)).isPresent();
+        }
+        assertThat(size(root.resolve(ARCHIVE.getSegment(1))))
+                .isEqualTo(record(A, "second").length() + record(C, "c").length());
+        try (var writer = ArchiveWriter.append(root)) {
+            assertThat(writer.dead()).isZero();
+        }
+    }
+
+    private static ArchiveRecord record(String id, String content) {
+        return new ArchiveRecord(id, "{}".getBytes(UTF_8), ("\"" + content + "\"").getBytes(UTF_8));
+    }
+}
@@ -0,0 +1,58 @@
+package io.wliamp.notion.compa;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GateTest {
+    @Test
+    void admitsLanesRoundRobin() {
+        var gate = new Gate(1);
+        var holder = Sinks.<Void>empty();
+        var order = new CopyOnWriteArrayList<String>();
+        gate.run("x", holder.asMono()).subscribe();
+
+        for (var name : List.of("a1", "a2", "a3", "b1", "c1"))
+            gate.run(name.substring(0, 1), Mono.fromRunnable(() -> order.add(name))).subscribe();
+        assertThat(order).isEmpty();
+
+        holder.tryEmitEmpty();
+
+        assertThat(order).containsExactly("a1", "b1", "c1", "a2", "a3");
+        assertThat(gate.active()).isZero();
+    }
+
+    @Test
+    void releasesPermitsOfCancelledTasks() {
+        var gate = new Gate(1);
+        var running = gate.run(Mono.never()).subscribe();
+        var queued = gate.run("a", Mono.never()).subscribe();
+        assertThat(gate.active()).isEqualTo(1);
+
+        queued.dispose();
+        running.dispose();
+
+        assertThat(gate.active()).isZero();
+        assertThat(gate.run(Mono.just(1)).block()).isEqualTo(1);
+        assertThat(gate.active()).isZero();
+    }
+
+    @Test
+    void admitsWaitersWhenResizedUp() {
+        var gate = new Gate(1);
+        gate.run(Mono.never()).subscribe();
+        var queued = gate.run(Mono.never()).subscribe();
+        assertThat(gate.active()).isEqualTo(1);
+
+        gate.resize(2);
+
+        assertThat(gate.active()).isEqualTo(2);
+        queued.dispose();
+        assertThat(gate.active()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,45 @@
+package io.wliamp.notion.compa;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static java.time.Duration.ZERO;
+import static java.time.Duration.ofMillis;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+    @Test
+    void spendsTheBurstWithoutWaiting() {
+        var limiter = new RateLimiter(10, 3);
+
+        for (var i = 0; i < 3; i++) assertThat(limiter.reserve()).isEqualTo(ZERO);
+
+        assertThat(limiter.reserve()).isBetween(ofMillis(50), ofMillis(100));
+        assertThat(limiter.reserve()).isBetween(ofMillis(150), ofMillis(200));
+    }
+
+    @Test
+    void refillsUpToTheBurst() throws InterruptedException {
+        var limiter = new RateLimiter(20, 2);
+        limiter.reserve();
+        limiter.reserve();
+        assertThat(limiter.reserve()).isPositive();
+
+        Thread.sleep(300);
+
+        assertThat(limiter.reserve()).isEqualTo(ZERO);
+        assertThat(limiter.reserve()).isEqualTo(ZERO);
+        assertThat(limiter.reserve()).isPositive();
+    }
+
+    @Test
+    void holdsEveryCallerDuringAPause() {
+        var limiter = new RateLimiter(1_000, 10);
+
+        limiter.pause(Duration.ofSeconds(1));
+
+        assertThat(limiter.pausedFor()).isBetween(ofMillis(500), Duration.ofSeconds(1));
+        assertThat(limiter.reserve()).isBetween(ofMillis(500), Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,93 @@
+package io.wliamp.notion.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.wliamp.notion.compa.Gate;
+import io.wliamp.notion.compa.RateLimiter;
+import io.wliamp.notion.compo.EnvConfig;
+import io.wliamp.notion.compo.Telemetry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class RateLimitFilterTest {
+    private final List<Long> calls = new CopyOnWriteArrayList<>();
+    private final AtomicInteger throttles = new AtomicInteger();
+    private final RateLimitFilter filter = new RateLimitFilter(
+            () -> new RateLimiter(1_000, 1_000),
+            3,
+            new Telemetry(new SimpleMeterRegistry(), mock(EnvConfig.class), new ObjectMapper()));
+
+    @Test
+    void waitsOutRetryAfterBeforeRetrying() {
+        throttles.set(1);
+
+        assertThat(get().block()).isEqualTo("ok");
+
+        assertThat(calls).hasSize(2);
+        assertThat(NANOSECONDS.toMillis(calls.get(1) - calls.get(0))).isGreaterThanOrEqualTo(1_000);
+    }
+
+    @Test
+    void releasesThePermitWhileBackingOff() throws InterruptedException {
+        throttles.set(1);
+        var gate = new Gate(1);
+        var result = filter.run(gate, "secret", get()).toFuture();
+
+        while (calls.isEmpty()) Thread.sleep(10);
+        Thread.sleep(200);
+
+        assertThat(result).isNotDone();
+        assertThat(gate.active()).isZero();
+        assertThat(gate.run(Mono.just("other")).block()).isEqualTo("other");
+
+        assertThat(result.join()).isEqualTo("ok");
+        assertThat(calls).hasSize(2);
+        assertThat(NANOSECONDS.toMillis(calls.get(1) - calls.get(0))).isGreaterThanOrEqualTo(1_000);
+        assertThat(gate.active()).isZero();
+    }
+
+    @Test
+    void givesUpAfterMaxRetries() {
+        throttles.set(Integer.MAX_VALUE);
+        var fast = new RateLimitFilter(() -> new RateLimiter(1_000, 1_000), 0,
+                new Telemetry(new SimpleMeterRegistry(), mock(EnvConfig.class), new ObjectMapper()));
+
+        assertThatThrownBy(() -> fast.run(new Gate(1), "secret", get(fast)).block())
+                .isInstanceOf(RateLimitFilter.Throttled.class);
+        assertThat(calls).hasSize(1);
+    }
+
+    private Mono<String> get() {
+        return get(filter);
+    }
+
+    private Mono<String> get(RateLimitFilter filter) {
+        return WebClient.builder()
+                .exchangeFunction(_ -> Mono.fromSupplier(() -> {
+                    calls.add(nanoTime());
+                    return throttles.getAndDecrement() > 0
+                            ? ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "1").build()
+                            : ClientResponse.create(HttpStatus.OK).header("Content-Type", "text/plain").body("ok").build();
+                }))
+                .filter(filter)
+                .build()
+                .get()
+                .uri("https://api.notion.test/v1/blocks/b")
+                .header("Authorization", "Bearer secret")
+                .retrieve()
+                .bodyToMono(String.class);
+    }
+}
@@ -0,0 +1,52 @@
+package io.wliamp.notion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.wliamp.notion.compa.ManifestEntry;
+import io.wliamp.notion.compo.EnvConfig;
+import io.wliamp.notion.compo.Telemetry;
+import io.wliamp.notion.constant.Compression;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static reactor.core.scheduler.Schedulers.boundedElastic;
+
+class ManifestServiceTest {
+    @TempDir
+    Path root;
+
+    private ManifestService manifestService;
+
+    @BeforeEach
+    void setUp() {
+        var mapper = new ObjectMapper();
+        var envConfig = mock(EnvConfig.class);
+        when(envConfig.getJsonCompression()).thenReturn(Compression.NONE);
+        var telemetry = new Telemetry(new SimpleMeterRegistry(), envConfig, mapper);
+        manifestService = new ManifestService(new JsonService(mapper, envConfig, telemetry, boundedElastic()), mapper);
+    }
+
+    @Test
+    void writesAndReloadsRowsWithoutPath() {
+        var page = new ManifestEntry("b", null, "page", "2024-01-01T00:00:00.000Z", false, "Page", "hash");
+        var database = new ManifestEntry("d", null, "database", "2024-01-01T00:00:00.000Z", false, "Tasks", null);
+        var row = new ManifestEntry("r", "d", "page", "2024-01-02T00:00:00.000Z", false, null, null);
+
+        manifestService.write(root, List.of(page, row, database)).block();
+
+        assertThat(manifestService.read(root).collectList().block())
+                .extracting(ManifestEntry::id)
+                .containsExactly("r", "b", "d");
+        assertThat(manifestService.load(root).block())
+                .containsEntry("r", row)
+                .containsEntry("b", page)
+                .containsEntry("d", database);
+    }
+}
@@ -0,0 +1,6 @@
+package io.wliamp.notion.compa;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import reactor.core.publisher.Mono;
+
+public record Snapshot(String id, String parentId, JsonNode meta, Mono<JsonNode> blocks) {}
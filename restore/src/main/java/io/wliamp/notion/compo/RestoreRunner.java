@@ -0,0 +1,29 @@
+package io.wliamp.notion.compo;
+
+import io.wliamp.notion.service.RestoreService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RestoreRunner implements CommandLineRunner {
+    private final RestoreService restoreService;
+    private final Telemetry telemetry;
+
+    @Override
+    public void run(String... args) {
+        var status = 1;
+        try {
+            restoreService.restore();
+            status = 0;
+        } catch (RuntimeException e) {
+            log.error("🔥 Restore job failed", e);
+        } finally {
+            telemetry.export();
+            System.exit(status);
+        }
+    }
+}
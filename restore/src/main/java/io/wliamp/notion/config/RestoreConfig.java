@@ -0,0 +1,17 @@
+package io.wliamp.notion.config;
+
+import io.wliamp.notion.compa.Gate;
+import io.wliamp.notion.compo.EnvConfig;
+import io.wliamp.notion.compo.Telemetry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RestoreConfig {
+    @Bean
+    public Gate uploadGate(EnvConfig envConfig, Telemetry telemetry) {
+        var gate = new Gate(envConfig.getUploadConcurrency());
+        telemetry.inFlight("notion.upload", gate);
+        return gate;
+    }
+}
@@ -0,0 +1,151 @@
+package io.wliamp.notion.service;
+
+import io.wliamp.notion.compa.Snapshot;
+import io.wliamp.notion.compo.EnvConfig;
+import io.wliamp.notion.compo.Telemetry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.wliamp.notion.compa.Utility.extractParentId;
+import static io.wliamp.notion.compa.Utility.mask;
+import static io.wliamp.notion.constant.Constant.*;
+import static java.nio.file.Paths.get;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toSet;
+import static reactor.core.publisher.Flux.fromIterable;
+import static reactor.core.publisher.Mono.*;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RestoreService {
+    private final EnvConfig envConfig;
+    private final UploadService uploadService;
+    private final ArchiveService archiveService;
+    private final ManifestService manifestService;
+    private final JsonService jsonService;
+    private final PathService pathService;
+    private final Telemetry telemetry;
+
+    private final AtomicInteger totalPages = new AtomicInteger(0);
+    private final AtomicInteger totalFailed = new AtomicInteger(0);
+
+    public void restore() {
+        totalPages.set(0);
+        totalFailed.set(0);
+        var root = get(envConfig.getTmp());
+        var target = envConfig.getRestoreParent().replace("-", "");
+        log.info("🔐 Using secret: {}", mask(envConfig.getToken(), 5));
+        log.info("🚀 Starting restore of {} into page [{}]", root.toAbsolutePath(), target);
+
+        if (target.isBlank()) throw new IllegalStateException("RESTORE_PARENT_PAGE_ID is not set, nothing to restore into");
+
+        archiveService.exists(root)
+                .flatMap(archived -> archived
+                        ? usingWhen(archiveService.reader(root),
+                        reader -> restore(archiveService.list(reader)
+                                .map(a -> new Snapshot(
+                                        a.id(),
+                                        extractParentId(a.meta()).orElse(null),
+                                        a.meta(),
+                                        archiveService.blocks(reader, a.id()))), target),
+                        reader -> fromRunnable(() -> archiveService.close(reader)))
+                        : restore(loadFolders(root), target))
+                .then(fromRunnable(() -> log.info("""
+                                ✅ RESTORE Summary for [{}]
+                                • Pages restored: {}
+                                • Blocks uploaded: {}
+                                • Blocks skipped: {}
+                                • Failed pages: {}
+                                """,
+                        root.getFileName(),
+                        totalPages.get(),
+                        uploadService.blocksUploaded(),
+                        uploadService.blocksSkipped(),
+                        totalFailed.get())))
+                .doOnError(e -> log.error("🔥 RESTORE failed", e))
+                .block();
+    }
+
+    private Mono<Void> restore(Flux<Snapshot> snapshots, String target) {
+        return telemetry.time("load", snapshots.collectList())
+                .flatMap(loaded -> telemetry.time("upload", restoreAll(loaded, target)));
+    }
+
+    private Flux<Snapshot> loadFolders(Path root) {
+        return manifestService.load(root)
+                .flatMapMany(manifest -> manifest.isEmpty()
+                        ? pathService.listObjects(root)
+                        .filter(dir -> !dir.getFileName().toString().startsWith("."))
+                        .filterWhen(pathService::isDir)
+                        : fromIterable(manifest.values())
+                        .filter(entry -> entry.path() != null && !ARCHIVE.getIndex().equals(entry.path()))
+                        .map(entry -> root.resolve(entry.path())))
+                .flatMap(dir -> jsonService.read(dir.resolve(JSON1.getJson()))
+                        .map(meta -> new Snapshot(
+                                meta.path("id").asText().replace("-", ""),
+                                extractParentId(meta).orElse(null),
+                                meta,
+                                jsonService.locate(dir.resolve(JSON2.getJson())).flatMap(jsonService::read)))
+                        .onErrorResume(e -> {
+                            log.warn("⚠ Skipping unreadable object [{}]: {}", dir, e.getMessage());
+                            return empty();
+                        }));
+    }
+
+    private Mono<Void> restoreAll(List<Snapshot> snapshots, String target) {
+        var ids = snapshots.stream().map(Snapshot::id).collect(toSet());
+        var children = snapshots.stream()
+                .filter(s -> s.parentId() != null && ids.contains(s.parentId()))
+                .collect(groupingBy(Snapshot::parentId));
+        var roots = snapshots.stream()
+                .filter(s -> s.parentId() == null || !ids.contains(s.parentId()))
+                .toList();
+        log.info("🗂 Loaded {} objects, {} at top level", snapshots.size(), roots.size());
+
+        return fromIterable(roots)
+                .flatMap(s -> restoreObject(s, target, children))
+                .then();
+    }
+
+    private Mono<Void> restoreObject(Snapshot snapshot, String parentId, Map<String, List<Snapshot>> children) {
+        var kids = children.getOrDefault(snapshot.id(), List.of());
+
+        return !"page".equals(snapshot.meta().path("object").asText())
+                ? fromRunnable(() -> log.warn("⚠ [{}] is a {}, only pages can be restored; its children go to [{}]",
+                snapshot.id(), snapshot.meta().path("object").asText(), parentId))
+                .then(fromIterable(kids).flatMap(k -> restoreObject(k, parentId, children)).then())
+                : uploadService.createPage(parentId, snapshot.meta(), envConfig.getToken())
+                .doOnNext(_ -> {
+                    totalPages.incrementAndGet();
+                    telemetry.count("restore.pages", 1);
+                })
+                .flatMap(newId -> when(
+                        restoreBlocks(snapshot, newId),
+                        fromIterable(kids).flatMap(k -> restoreObject(k, newId, children)).then()))
+                .onErrorResume(e -> {
+                    totalFailed.incrementAndGet();
+                    log.error("❌ Failed to restore [{}] ({} sub-pages skipped): {}",
+                            snapshot.id(), kids.size(), e.getMessage());
+                    return empty();
+                });
+    }
+
+    private Mono<Void> restoreBlocks(Snapshot snapshot, String pageId) {
+        return snapshot.blocks()
+                .flatMap(blocks -> uploadService.appendTree(pageId, blocks, envConfig.getToken()))
+                .doOnSuccess(_ -> log.debug("💾 Blocks of [{}] restored into [{}]", snapshot.id(), pageId))
+                .onErrorResume(e -> {
+                    log.error("❌ Blocks of [{}] only partially restored: {}", snapshot.id(), e.getMessage());
+                    return empty();
+                });
+    }
+}
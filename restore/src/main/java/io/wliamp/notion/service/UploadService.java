@@ -0,0 +1,198 @@
+package io.wliamp.notion.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.wliamp.notion.compa.Gate;
+import io.wliamp.notion.compo.Telemetry;
+import io.wliamp.notion.config.RateLimitFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.Math.min;
+import static java.util.Map.entry;
+import static java.util.stream.IntStream.range;
+import static java.util.stream.StreamSupport.stream;
+import static reactor.core.publisher.Flux.fromIterable;
+import static reactor.core.publisher.Mono.*;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UploadService {
+    private static final int BATCH_SIZE = 100;
+    private static final int MAX_DEPTH = 2;
+    private static final Set<String> SKIPPED_TYPES = Set.of(
+            "child_page", "child_database", "unsupported", "link_preview", "template");
+    private static final Set<String> FILE_TYPES = Set.of("file", "image", "pdf", "video", "audio");
+    private static final Set<String> INLINE_TYPES = Set.of("table", "column_list", "column");
+
+    private final WebClient webClient;
+    private final ObjectMapper mapper;
+    private final Gate uploadGate;
+    private final RateLimitFilter rateLimitFilter;
+    private final Telemetry telemetry;
+
+    private final AtomicInteger totalBlocks = new AtomicInteger();
+    private final AtomicInteger totalSkipped = new AtomicInteger();
+
+    public int blocksUploaded() {
+        return totalBlocks.get();
+    }
+
+    public int blocksSkipped() {
+        return totalSkipped.get();
+    }
+
+    public Mono<String> createPage(String parentId, JsonNode meta, String token) {
+        var body = mapper.createObjectNode();
+        body.set("parent", mapper.createObjectNode().put("page_id", parentId));
+        body.set("properties", mapper.createObjectNode()
+                .set("title", mapper.createObjectNode().set("title", title(meta))));
+        external(meta.path("icon"), "emoji").ifPresent(icon -> body.set("icon", icon));
+        external(meta.path("cover"), null).ifPresent(cover -> body.set("cover", cover));
+
+        return rateLimitFilter.run(uploadGate, token, webClient.post()
+                        .uri("/pages")
+                        .header("Authorization", "Bearer " + token)
+                        .bodyValue(body)
+                        .retrieve()
+                        .bodyToMono(JsonNode.class))
+                .map(page -> page.path("id").asText())
+                .doOnNext(id -> log.debug("📄 Page created [{}] under [{}]", id, parentId));
+    }
+
+    public Mono<Void> appendTree(String parentId, JsonNode blocks, String token) {
+        var sources = stream(blocks.spliterator(), false)
+                .filter(block -> sanitize(block).isPresent())
+                .toList();
+        totalSkipped.addAndGet(blocks.size() - sources.size());
+
+        return fromIterable(sources)
+                .buffer(BATCH_SIZE)
+                .concatMap(batch -> append(parentId, batch, token)
+                        .flatMapMany(created -> Flux.fromStream(range(0, min(batch.size(), created.size()))
+                                .mapToObj(i -> entry(batch.get(i), created.get(i))))))
+                .flatMap(pair -> complete(pair.getKey(), pair.getValue().path("id").asText(), token, 0))
+                .then();
+    }
+
+    private Mono<JsonNode> append(String parentId, List<JsonNode> batch, String token) {
+        var children = mapper.createArrayNode();
+        batch.forEach(block -> sanitize(block).ifPresent(children::add));
+
+        return rateLimitFilter.run(uploadGate, token, webClient.patch()
+                        .uri("/blocks/{id}/children", parentId)
+                        .header("Authorization", "Bearer " + token)
+                        .bodyValue(mapper.createObjectNode().set("children", children))
+                        .retrieve()
+                        .bodyToMono(JsonNode.class))
+                .map(root -> root.path("results"))
+                .doOnNext(results -> {
+                    totalBlocks.addAndGet(results.size());
+                    telemetry.count("restore.blocks", results.size());
+                    log.debug("🧱 Appended {} blocks under [{}]", results.size(), parentId);
+                });
+    }
+
+    /** Appends what the create request of {@code source} could not carry: deeper content and children past the batch. */
+    private Mono<Void> complete(JsonNode source, String id, String token, int depth) {
+        var kids = source.path("children");
+        if (!kids.isArray() || kids.isEmpty()) return empty();
+        var type = source.path("type").asText();
+        if (!inlined(type, depth)) return appendTree(id, kids, token);
+
+        var inlined = stream(kids.spliterator(), false)
+                .limit(BATCH_SIZE)
+                .filter(kid -> sanitize(kid).isPresent())
+                .toList();
+        var rest = mapper.createArrayNode();
+        range(BATCH_SIZE, kids.size()).forEach(i -> rest.add(kids.get(i)));
+
+        var nested = inlined.stream().anyMatch(kid -> kid.path("children").size() > 0)
+                ? children(id, token)
+                .flatMapMany(created -> Flux.fromStream(range(0, min(inlined.size(), created.size()))
+                        .mapToObj(i -> entry(inlined.get(i), created.get(i)))))
+                .flatMap(pair -> complete(pair.getKey(), pair.getValue().path("id").asText(), token, depth + 1))
+                .then()
+                : Mono.<Void>empty();
+
+        return nested.then(rest.isEmpty()
+                ? Mono.<Void>empty()
+                : "column_list".equals(type)
+                ? fromRunnable(() -> {
+                    totalSkipped.addAndGet(rest.size());
+                    log.warn("⚠ Column list [{}] has {} columns over the limit of {}, not restored", id, rest.size(), BATCH_SIZE);
+                })
+                : appendTree(id, rest, token));
+    }
+
+    private Mono<JsonNode> children(String blockId, String token) {
+        return rateLimitFilter.run(uploadGate, token, webClient.get()
+                        .uri(uri -> uri.path("/blocks/{id}/children").queryParam("page_size", BATCH_SIZE).build(blockId))
+                        .header("Authorization", "Bearer " + token)
+                        .retrieve()
+                        .bodyToMono(JsonNode.class))
+                .map(list -> list.path("results"));
+    }
+
+    private Optional<ObjectNode> sanitize(JsonNode block) {
+        return sanitize(block, 0);
+    }
+
+    private Optional<ObjectNode> sanitize(JsonNode block, int depth) {
+        var type = block.path("type").asText();
+        var content = block.get(type);
+        if (SKIPPED_TYPES.contains(type) || content == null || !content.isObject()) return Optional.empty();
+        if (FILE_TYPES.contains(type) && !"external".equals(content.path("type").asText())) return Optional.empty();
+        if ("synced_block".equals(type) && !content.path("synced_from").isNull()) return Optional.empty();
+
+        var copy = (ObjectNode) content.deepCopy();
+        if (inlined(type, depth)) copy.set("children", inline(block.path("children"), depth + 1));
+
+        var node = mapper.createObjectNode()
+                .put("object", "block")
+                .put("type", type);
+        node.set(type, copy);
+        return Optional.of(node);
+    }
+
+    private ArrayNode inline(JsonNode kids, int depth) {
+        var array = mapper.createArrayNode();
+        stream(kids.spliterator(), false)
+                .limit(BATCH_SIZE)
+                .map(kid -> sanitize(kid, depth))
+                .flatMap(Optional::stream)
+                .forEach(array::add);
+        return array;
+    }
+
+    private static boolean inlined(String type, int depth) {
+        return INLINE_TYPES.contains(type) && depth < MAX_DEPTH;
+    }
+
+    private ArrayNode title(JsonNode meta) {
+        return stream(meta.path("properties").spliterator(), false)
+                .filter(prop -> "title".equals(prop.path("type").asText()))
+                .map(prop -> prop.path("title"))
+                .filter(JsonNode::isArray)
+                .map(arr -> (ArrayNode) arr.deepCopy())
+                .findFirst()
+                .orElseGet(mapper::createArrayNode);
+    }
+
+    private static Optional<JsonNode> external(JsonNode media, String allowed) {
+        var type = media.path("type").asText();
+        return "external".equals(type) || type.equals(allowed) ? Optional.of(media) : Optional.empty();
+    }
+}
@@ -0,0 +1,195 @@
+package io.wliamp.notion.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.wliamp.notion.compa.Gate;
+import io.wliamp.notion.compa.RateLimiter;
+import io.wliamp.notion.compo.EnvConfig;
+import io.wliamp.notion.compo.Telemetry;
+import io.wliamp.notion.config.RateLimitFilter;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.IntStream.range;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class UploadServiceTest {
+    private static final String ROOT = "root";
+    private static final String MISSING = "missing";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final MockWebServer server = new MockWebServer();
+    private final Map<String, List<String>> children = new ConcurrentHashMap<>();
+    private final Map<String, String> types = new ConcurrentHashMap<>();
+    private final List<JsonNode> appends = new CopyOnWriteArrayList<>();
+    private final AtomicInteger ids = new AtomicInteger();
+
+    private UploadService uploadService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return handle(request);
+            }
+        });
+        server.start();
+
+        var telemetry = new Telemetry(new SimpleMeterRegistry(), mock(EnvConfig.class), mapper);
+        var rateLimitFilter = new RateLimitFilter(() -> new RateLimiter(1_000, 1_000), 3, telemetry);
+        var webClient = WebClient.builder()
+                .baseUrl(server.url("/").toString())
+                .filter(rateLimitFilter)
+                .build();
+        uploadService = new UploadService(webClient, mapper, new Gate(4), rateLimitFilter, telemetry);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void restoresColumnListsWithinTwoLevelsPerRequest() {
+        var table = block("table", block("table_row"), block("table_row"));
+        var toggle = block("toggle", block("paragraph", block("paragraph")));
+        var blocks = array(block("column_list",
+                block("column", table, toggle),
+                block("column", paragraphs(150))));
+
+        uploadService.appendTree(ROOT, blocks, "secret").block();
+
+        assertThat(render(ROOT)).isEqualTo(render(blocks));
+        assertThat(appends).allSatisfy(body -> assertThat(depth(body.path("children"))).isLessThanOrEqualTo(2));
+    }
+
+    @Test
+    void splitsChildrenPastTheBatchSize() {
+        var blocks = array(paragraphs(250).toArray(JsonNode[]::new));
+
+        uploadService.appendTree(ROOT, blocks, "secret").block();
+
+        assertThat(children.get(ROOT)).hasSize(250);
+        assertThat(appends).extracting(body -> body.path("children").size()).containsExactly(100, 100, 50);
+    }
+
+    @Test
+    void failsWhenTheParentIsMissing() {
+        var blocks = array(block("paragraph"));
+
+        assertThatThrownBy(() -> uploadService.appendTree(MISSING, blocks, "secret").block())
+                .isInstanceOf(WebClientResponseException.NotFound.class);
+        assertThat(appends).isEmpty();
+    }
+
+    private MockResponse handle(RecordedRequest request) {
+        var segments = request.getRequestUrl().pathSegments();
+        var parent = segments.size() > 1 ? segments.get(1) : "";
+        if (MISSING.equals(parent)) return json(404, "{\"object\":\"error\",\"status\":404,\"code\":\"object_not_found\"}");
+
+        try {
+            var results = mapper.createArrayNode();
+            switch (request.getMethod()) {
+                case "PATCH" -> {
+                    var body = mapper.readTree(request.getBody().readUtf8());
+                    appends.add(body);
+                    create(parent, body.path("children")).forEach(id -> results.add(created(id)));
+                }
+                case "GET" -> children.getOrDefault(parent, List.of()).forEach(id -> results.add(created(id)));
+                default -> {
+                    return json(405, "{}");
+                }
+            }
+            return json(200, mapper.createObjectNode().set("results", results).toString());
+        } catch (IOException e) {
+            return json(400, "{}");
+        }
+    }
+
+    private List<String> create(String parent, JsonNode blocks) {
+        var created = new ArrayList<String>();
+        blocks.forEach(block -> {
+            var type = block.path("type").asText();
+            var id = "b" + ids.incrementAndGet();
+            types.put(id, type);
+            create(id, block.path(type).path("children"));
+            created.add(id);
+        });
+        children.computeIfAbsent(parent, _ -> new CopyOnWriteArrayList<>()).addAll(created);
+        return created;
+    }
+
+    private ObjectNode created(String id) {
+        return mapper.createObjectNode().put("id", id).put("type", types.get(id));
+    }
+
+    private String render(String id) {
+        return children.getOrDefault(id, List.of()).stream()
+                .map(kid -> types.get(kid) + "(" + render(kid) + ")")
+                .collect(joining(","));
+    }
+
+    private String render(JsonNode blocks) {
+        var rendered = new ArrayList<String>();
+        blocks.forEach(block -> rendered.add(block.path("type").asText() + "(" + render(block.path("children")) + ")"));
+        return String.join(",", rendered);
+    }
+
+    private static int depth(JsonNode blocks) {
+        var deepest = 0;
+        for (var block : blocks) {
+            var kids = block.path(block.path("type").asText()).path("children");
+            if (!kids.isEmpty()) deepest = Math.max(deepest, 1 + depth(kids));
+        }
+        return deepest;
+    }
+
+    private List<JsonNode> paragraphs(int count) {
+        return range(0, count).mapToObj(_ -> (JsonNode) block("paragraph")).toList();
+    }
+
+    private ObjectNode block(String type, JsonNode... kids) {
+        return block(type, List.of(kids));
+    }
+
+    private ObjectNode block(String type, List<JsonNode> kids) {
+        var block = mapper.createObjectNode().put("object", "block").put("type", type);
+        block.putObject(type).putArray("rich_text");
+        block.put("has_children", !kids.isEmpty());
+        if (!kids.isEmpty()) block.putArray("children").addAll(kids);
+        return block;
+    }
+
+    private ArrayNode array(JsonNode... blocks) {
+        return mapper.createArrayNode().addAll(List.of(blocks));
+    }
+
+    private static MockResponse json(int status, String body) {
+        return new MockResponse()
+                .setResponseCode(status)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body);
+    }
+}